@@ -0,0 +1,91 @@
+package com.example.taskManagement.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.taskManagement.repositories.UserRepository;
+import com.example.taskManagement.security.CustomUserDetailsService;
+import com.example.taskManagement.security.JwtAuthenticationFilter;
+import com.example.taskManagement.security.JwtTokenProvider;
+import com.example.taskManagement.security.TokenRevocationList;
+import com.example.taskManagement.security.UserDetailsCache;
+import com.example.taskManagement.security.UserPrincipal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * One authenticated request through the JWT filter, the user service is a mock
+ * so only the filter's own work (parse, cache lookup, security context) is measured
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean verifiedCache;
+
+    @Param({ "false", "true" })
+    private boolean statelessPrincipal;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider tokenProvider = JwtTokenProviderBenchmark.newTokenProvider(verifiedCache);
+        UserPrincipal principal = new UserPrincipal(1L, 0L, "bench", "password",
+                List.of(new SimpleGrantedAuthority("USER")));
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("bench")).thenReturn(principal);
+        // token versions are loaded up front, as at startup
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllTokenVersions()).thenReturn(List.<Object[]>of(new Object[] {1L, 0L}));
+        TokenRevocationList revocationList = new TokenRevocationList(60000, userRepository);
+        revocationList.refresh();
+
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService,
+                new UserDetailsCache(60000, 10000), revocationList, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", statelessPrincipal);
+        authorization = "Bearer " + tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
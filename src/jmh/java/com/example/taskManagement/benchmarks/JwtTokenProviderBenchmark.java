@@ -0,0 +1,76 @@
+package com.example.taskManagement.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.taskManagement.security.JwtTokenProvider;
+import com.example.taskManagement.security.UserPrincipal;
+
+/**
+ * Token signing and verification, with and without the verified token cache
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean verifiedCache;
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = newTokenProvider(verifiedCache);
+        UserPrincipal principal = new UserPrincipal(1L, 0L, "bench", "password",
+                List.of(new SimpleGrantedAuthority("USER")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromJWT() {
+        return tokenProvider.getUsernameFromJWT(token);
+    }
+
+    static JwtTokenProvider newTokenProvider(boolean verifiedCache) {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "af3c1a2b3d4e5f6789abcdef01234567890bcdef");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86400000);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheEnabled", verifiedCache);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheMaxSize", 10000L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+        return tokenProvider;
+    }
+}
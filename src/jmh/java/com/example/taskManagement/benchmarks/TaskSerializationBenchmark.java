@@ -0,0 +1,77 @@
+package com.example.taskManagement.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Jackson serialization of task lists, configured like Spring Boot's ObjectMapper
+ * format: plain reflective JSON, JSON with Blackbird accessors (what the app uses), Smile, CBOR
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSerializationBenchmark {
+
+    @Param({ "1", "100", "1000", "10000" })
+    private int size;
+
+    @Param({ "json", "blackbird", "smile", "cbor" })
+    private String format;
+
+    private ObjectWriter writer;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (!format.equals("json"))
+            builder.modulesToInstall(new BlackbirdModule());
+        if (format.equals("smile"))
+            builder.factory(new SmileFactory());
+        else if (format.equals("cbor"))
+            builder.factory(new CBORFactory());
+        writer = builder.build().writerFor(List.class);
+        tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setId(i + 1);
+            task.setTitle("Task number " + i);
+            task.setDescription("Description of task " + i + ", long enough to look like real input");
+            task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            task.setCreatedAt(now.minusMinutes(i));
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return writer.writeValueAsBytes(tasks);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.taskManagement.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+import com.example.taskManagement.repositories.TaskRepository;
+import com.example.taskManagement.services.TaskServiceImpl;
+
+/**
+ * Validation and update logic of TaskServiceImpl against a mocked repository
+ * Mockito's dispatch is part of every measurement, compare runs with each other
+ * rather than reading the numbers as absolute costs
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+
+    private TaskServiceImpl taskService;
+    private Task details;
+    private Task invalid;
+
+    @Setup
+    public void setUp() {
+        Task existing = new Task();
+        existing.setId(1L);
+        existing.setTitle("Existing task");
+        existing.setDescription("Stored description");
+        existing.setStatus(TaskStatus.PENDING);
+
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService = new TaskServiceImpl();
+        ReflectionTestUtils.setField(taskService, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(taskService, "eventPublisher", mock(ApplicationEventPublisher.class));
+
+        details = new Task();
+        details.setTitle("Updated title");
+        details.setDescription("Updated description");
+        details.setStatus(TaskStatus.PENDING);
+
+        invalid = new Task();
+        invalid.setTitle("   ");
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        return taskService.updateTask(1L, details, null);
+    }
+
+    @Benchmark
+    public Object createTaskRejected() {
+        try {
+            return taskService.createTask(invalid, 1L);
+        } catch (IllegalArgumentException ex) {
+            return ex;
+        }
+    }
+}
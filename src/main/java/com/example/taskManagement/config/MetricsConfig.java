@@ -0,0 +1,36 @@
+package com.example.taskManagement.config;
+
+import javax.cache.CacheManager;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.taskManagement.security.JwtTokenProvider;
+import com.example.taskManagement.security.UserDetailsCache;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Metrics for our own caches; HTTP, repository, Hibernate and connection pool
+ * metrics come from Spring Boot's auto-configuration (see application.properties)
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder authCacheMetrics(UserDetailsCache userDetailsCache, JwtTokenProvider tokenProvider) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, userDetailsCache.getCache(), "userDetails");
+            if (tokenProvider.getVerifiedTokenCache() != null)
+                CaffeineCacheMetrics.monitor(registry, tokenProvider.getVerifiedTokenCache(), "verifiedTokens");
+        };
+    }
+
+    // Size and evictions per second-level cache region; Hibernate only reports hits, misses and puts
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> SecondLevelCacheConfig.regions(hibernateCacheManager)
+                .forEach((name, cache) -> CaffeineCacheMetrics.monitor(registry, cache, name));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.taskManagement.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Read replicas, enabled by setting app.datasource.replicas
+ * spring.datasource.* still configures the primary; each replica URL gets a
+ * pool of the same size and credentials, and read-only transactions are routed
+ * to them by ReplicaRoutingDataSource
+ * With app.datasource.migrateReplicas the Flyway migrations are also applied to
+ * each replica URL, for local databases that nothing replicates to
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replicas")
+public class ReadReplicaConfig {
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replicas}") List<String> replicaUrls,
+                                 @Value("${app.replicaStickinessMs:5000}") long stickinessMs,
+                                 @Value("${app.datasource.migrateReplicas:false}") boolean migrateReplicas) {
+        for (String url : replicaUrls) {
+            if (migrateReplicas)
+                Flyway.configure()
+                        .dataSource(url.trim(), properties.determineUsername(), properties.determinePassword())
+                        .load()
+                        .migrate();
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicaPools.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            config.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicaPools.add(new HikariDataSource(config));
+        }
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaPools, stickinessMs));
+    }
+
+    // Hibernate would otherwise keep the connection of a request's first transaction
+    // (open-in-view) for the later ones, sending writes after a read to a replica
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @PreDestroy
+    void closeReplicas() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.taskManagement.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Sends the connections of read-only transactions to the replicas, round robin,
+ * and every other connection to the primary
+ * A caller whose write committed less than the stickiness window ago keeps
+ * reading from the primary, so it sees its own changes however far the
+ * replicas lag behind
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the read-only flag of a
+ * transaction is only known after it began, the connection is picked on its first statement
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final int MAX_TRACKED_WRITERS = 100_000;
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, long stickinessMs) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            targets.put(key, replicas.get(i));
+            replicaKeys.add(key);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickinessMs, TimeUnit.MILLISECONDS)
+                .maximumSize(MAX_TRACKED_WRITERS)
+                .build();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String caller = currentCaller();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // statements outside any transaction are reads of repository query methods
+            if (TransactionSynchronizationManager.isActualTransactionActive())
+                recordWrite(caller);
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || (caller != null && recentWriters.getIfPresent(caller) != null))
+            return PRIMARY;
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private void recordWrite(String caller) {
+        if (caller == null)
+            return;
+        // the window starts once the write is visible to others
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(caller, Boolean.TRUE);
+            }
+        });
+    }
+
+    // Username of the authenticated caller, null for background work
+    private static String currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken)
+            return null;
+        return authentication.getName();
+    }
+}
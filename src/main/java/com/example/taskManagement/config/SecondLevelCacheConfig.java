@@ -0,0 +1,90 @@
+package com.example.taskManagement.config;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.User;
+import com.example.taskManagement.repositories.TaskRepository;
+import com.example.taskManagement.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Regions of the Hibernate second-level and query caches
+ * They live in a Caffeine JCache manager created here, so every region is
+ * bounded in size and time instead of getting the provider's unbounded defaults
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Hibernate's own query cache regions
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${app.secondLevelCacheMaxSize:10000}")
+    private long entityMaxSize;
+
+    @Value("${app.queryCacheMaxSize:1000}")
+    private long queryMaxSize;
+
+    @Value("${app.secondLevelCacheTtlMs:600000}")
+    private long ttlMs;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // a manager of our own per application context, test contexts sharing a JVM must not share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, Task.CACHE_REGION, entityMaxSize, ttlMs);
+        createRegion(cacheManager, User.CACHE_REGION, entityMaxSize, ttlMs);
+        createRegion(cacheManager, TaskRepository.QUERY_CACHE_REGION, queryMaxSize, ttlMs);
+        createRegion(cacheManager, UserRepository.QUERY_CACHE_REGION, queryMaxSize, ttlMs);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxSize, ttlMs);
+        // one entry per table; it must never lose one, or outdated query results would look fresh
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * The Caffeine cache behind every region, for statistics
+     */
+    public static Map<String, Cache<?, ?>> regions(CacheManager cacheManager) {
+        Map<String, Cache<?, ?>> regions = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames())
+            regions.put(name, cacheManager.getCache(name).unwrap(Cache.class));
+        return regions;
+    }
+
+    // 0 means no bound
+    private static void createRegion(CacheManager cacheManager, String name, long maximumSize, long ttlMs) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize > 0)
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (ttlMs > 0)
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        // Hibernate caches immutable disassembled state, copying it on every access buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
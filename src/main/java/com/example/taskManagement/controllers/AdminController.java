@@ -0,0 +1,64 @@
+package com.example.taskManagement.controllers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.CacheManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.taskManagement.config.SecondLevelCacheConfig;
+import com.example.taskManagement.security.JwtTokenProvider;
+import com.example.taskManagement.security.UserDetailsCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Controller exposing operational information (ADMIN only, enforced in SecurityConfig)
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    /**
+     * Get hit/miss counters of the authentication caches and of the
+     * Hibernate second-level cache regions
+     *
+     * @return Statistics per cache
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<?> getCacheStats() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        caches.put("userDetails", toMap(userDetailsCache.stats(), userDetailsCache.size()));
+        if (tokenProvider.getVerifiedTokenCache() != null)
+            caches.put("verifiedTokens", toMap(tokenProvider.getVerifiedTokenCache().stats(),
+                    tokenProvider.getVerifiedTokenCache().estimatedSize()));
+        Map<String, Object> regions = new LinkedHashMap<>();
+        SecondLevelCacheConfig.regions(hibernateCacheManager)
+                .forEach((name, cache) -> regions.put(name, toMap(cache.stats(), cache.estimatedSize())));
+        caches.put("secondLevel", regions);
+        return ResponseEntity.ok(caches);
+    }
+
+    private static Map<String, Object> toMap(CacheStats stats, long size) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", size);
+        map.put("hits", stats.hitCount());
+        map.put("misses", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("evictions", stats.evictionCount());
+        return map;
+    }
+}
@@ -1,44 +1,76 @@
 package com.example.taskManagement.controllers;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.example.taskManagement.dto.LoginRequest;
 import com.example.taskManagement.dto.RegisterRequest;
 import com.example.taskManagement.models.Role;
 import com.example.taskManagement.models.User;
-import com.example.taskManagement.repositories.UserRepository;
+import com.example.taskManagement.services.DuplicateUserException;
+import com.example.taskManagement.services.UserAvailabilityIndex;
+import com.example.taskManagement.services.UserService;
+import com.example.taskManagement.security.CustomUserDetailsService;
 import com.example.taskManagement.security.JwtTokenProvider;
+import com.example.taskManagement.security.PasswordHashingBusyException;
+import com.example.taskManagement.security.PasswordHashingExecutor;
 
 /**
  * Controller handling authentication endpoints like login and registration
+ * Password hashing runs on the PasswordHashingExecutor, the request thread is
+ * released while it waits (503 with Retry-After when the executor is saturated)
+ * Database work runs on the async executor, so hashing threads never wait for a connection
  */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private CustomUserDetailsService userDetailsService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
     private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    // hash checked for unknown usernames, encoded on the hashing pool at the first one
+    private volatile String unknownUserPassword;
+
+    // Spring Boot's executor, the one async MVC requests use
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor asyncExecutor;
     
     /**
      * Handle user registration
@@ -47,26 +79,22 @@ public class AuthController {
      * @return Response with failure/success message
      */
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody RegisterRequest registerRequest) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
-            return ResponseEntity.badRequest().body("Username is already taken!");
-        }
-
-        // Check if email already exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            return ResponseEntity.badRequest().body("Email is already in use!");
-        }
-
-        // Create new user
-        User user = new User();
-        user.setUsername(registerRequest.getUsername());
-        user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-        user.setRole(Role.USER); // Explicitly set role
-        userRepository.save(user);
-
-        return ResponseEntity.ok("User registered successfully!");
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody RegisterRequest registerRequest) {
+        // Create new user, hashing the password off the request thread
+        // Taken usernames and emails are reported by the insert itself (409)
+        // The insert runs on the async executor: a hashing thread waiting for a
+        // connection would hold up the hashes queued behind it
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(registerRequest.getPassword()))
+                .thenApplyAsync(encodedPassword -> {
+                    User user = new User();
+                    user.setUsername(registerRequest.getUsername());
+                    user.setEmail(registerRequest.getEmail());
+                    user.setPassword(encodedPassword);
+                    user.setRole(Role.USER); // Explicitly set role
+                    userService.registerUser(user);
+
+                    return ResponseEntity.ok("User registered successfully!");
+                }, asyncExecutor);
 
     }
 
@@ -77,26 +105,99 @@ public class AuthController {
      * @return JWT token if authentication successful
      */
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest 
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody LoginRequest 
     loginRequest) {
        //++ System.out.println("Login attempt for user: " + loginRequest. getUsername());  ++//
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
+        // The password check is the BCrypt work; the security context is not set,
+        // the caller authenticates later requests with the returned token
+        // Only the BCrypt check (and the re-hash of an outdated one) runs on the hashing
+        // pool; loading the user and storing an upgraded hash run on the async executor.
+        // The security context is not set, the caller authenticates later requests with
+        // the returned token
+        return CompletableFuture.supplyAsync(() -> findUser(loginRequest.getUsername()), asyncExecutor)
+                .thenCompose(user -> passwordHashingExecutor.submit(() -> checkPassword(user, loginRequest.getPassword())))
+                .thenApplyAsync(check -> {
+                    UserDetails user = check.user();
+                    if (check.upgradedPassword() != null)
+                        user = userDetailsService.updatePassword(user, check.upgradedPassword());
+                    String jwt = tokenProvider.generateToken(
+                            UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+
+                    Map<String, String> response = new HashMap<>();
+                    response.put("token", jwt);
+                    response.put("type", "Bearer");
+
+                    return ResponseEntity.ok(response);
+                }, asyncExecutor);
+
+    }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+    // null for an unknown username, which is told apart only after a password check
+    private UserDetails findUser(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
+
+    private PasswordCheck checkPassword(UserDetails user, String password) {
+        if (user == null) {
+            // as long as a check of a real user, so response times do not reveal which usernames exist
+            passwordEncoder.matches(password, unknownUserPassword());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!passwordEncoder.matches(password, user.getPassword()))
+            throw new BadCredentialsException("Bad credentials");
+        // hashes weaker than the configured strength are replaced after a successful login
+        String upgraded = passwordEncoder.upgradeEncoding(user.getPassword()) ? passwordEncoder.encode(password) : null;
+        return new PasswordCheck(user, upgraded);
+    }
+
+    private String unknownUserPassword() {
+        String encoded = unknownUserPassword;
+        if (encoded == null)
+            unknownUserPassword = encoded = passwordEncoder.encode("unknown-user-password");
+        return encoded;
+    }
 
-        String jwt = tokenProvider.generateToken(authentication);
+    private record PasswordCheck(UserDetails user, String upgradedPassword) {
+    }
 
-        Map<String, String> response = new HashMap<>();
-        response.put("token", jwt);
-        response.put("type", "Bearer");
+    /**
+     * Check whether a username and/or email can still be registered
+     * Mostly answered from memory, see UserAvailabilityIndex
+     *
+     * @return true per requested field when it is free
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        if (username == null && email == null)
+            return ResponseEntity.badRequest().body(Map.of("error", "username or email is required"));
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        if (username != null)
+            availability.put("username", availabilityIndex.isUsernameAvailable(username));
+        if (email != null)
+            availability.put("email", availabilityIndex.isEmailAvailable(email));
+        return ResponseEntity.ok(availability);
+    }
 
-        return ResponseEntity.ok(response);
+    @ExceptionHandler(DuplicateUserException.class)
+    public ResponseEntity<String> handleDuplicateUser(DuplicateUserException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, String>> handleBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
 
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> handleAuthenticationFailure(AuthenticationException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid username or password"));
     }
     
 }
@@ -1,13 +1,49 @@
 package com.example.taskManagement.controllers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.taskManagement.dto.BatchItemResult;
+import com.example.taskManagement.dto.TaskField;
+import com.example.taskManagement.dto.TaskListVersion;
+import com.example.taskManagement.dto.TaskPage;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.dto.TaskStats;
+import com.example.taskManagement.dto.TaskTransition;
+import com.example.taskManagement.dto.TaskView;
+import com.example.taskManagement.events.TaskEventHub;
 import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+import com.example.taskManagement.security.UserPrincipal;
+import com.example.taskManagement.services.IllegalTaskTransitionException;
+import com.example.taskManagement.services.TaskNotFoundException;
 import com.example.taskManagement.services.TaskService;
+import com.example.taskManagement.services.TaskVersionConflictException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -25,61 +61,349 @@ public class TaskController {
      * }
      */
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+    private final TaskEventHub taskEventHub;
+    private final ObjectWriter ndjsonWriter;
+
+    @Value("${app.taskPageSize:100}")
+    private int defaultPageSize;
 
     /* *** 3. Constructor injection *** */
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectMapper objectMapper, TaskEventHub taskEventHub) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
+        this.taskEventHub = taskEventHub;
+        // resolved once: the serializer lookup is not repeated for every export
+        this.ndjsonWriter = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    /**
+     * The ETag is the task version (the same value PATCH accepts in If-Match);
+     * a matching If-None-Match or If-Modified-Since gets a 304 without a body.
+     * Like every single-task and batch endpoint, a task of another user is answered with 404
+     * (admins reach every task).
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id, WebRequest request,
+                                            @AuthenticationPrincipal UserPrincipal principal) {
         /*  return taskService.getTaskById(id)
                  .map(ResponseEntity::ok)   //.map(task -> ResponseEntity.ok(task)   if task exists, wrap it in ResponseEntity
              .orElse(ResponseEntity.notFound().build());
         */
-        Optional<Task> taskOptional = taskService.getTaskById(id);
-        if (taskOptional.isPresent())
-            return ResponseEntity.ok(taskOptional.get());
+        Optional<Task> taskOptional = taskService.getTaskById(id, taskScope(principal));
+        if (taskOptional.isPresent()) {
+            Task task = taskOptional.get();
+            if (request.checkNotModified(Long.toString(task.getVersion()), toEpochMilli(task.getUpdatedAt())))
+                return null;
+            return ResponseEntity.ok(task);
+        }
         else
             return ResponseEntity.notFound().build();
     }
     
+    /**
+     * Keyset-paginated listing of the caller's tasks (every task for admins with all=true).
+     * The body stays a plain array; the continuation token for the next page,
+     * if any, is returned in the X-Next-Cursor header.
+     * With since and/or until, only tasks created in [since, until) are listed, oldest first.
+     * Conditional requests are answered with 304 before any task is loaded.
+     * Like every listing, each task only has the fields named in ?fields=,
+     * id, title, status and updatedAt by default; GET /{id} returns the whole task.
+     */
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskView>> getAllTasks(WebRequest request,
+                                                      @AuthenticationPrincipal UserPrincipal principal,
+                                                      @RequestParam(defaultValue = "false") boolean all,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String fields,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        Long ownerId = ownerScope(principal, all);
+        Set<TaskField> selected = TaskField.parse(fields);
+        if (listNotModified(request))
+            return null;
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (since != null || until != null)
+            return toResponse(taskService.getTasksCreatedBetween(ownerId, since, until, cursor, pageSize, selected));
+        return toResponse(taskService.getTasksPage(ownerId, cursor, pageSize, selected));
+    }
+
+    /**
+     * Tasks created during the last days, newest first
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<List<TaskView>> getRecentTasks(@AuthenticationPrincipal UserPrincipal principal,
+                                                         @RequestParam(defaultValue = "false") boolean all,
+                                                         @RequestParam(defaultValue = "7") int days,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String fields) {
+        return toResponse(taskService.getRecentTasksPage(ownerScope(principal, all), days, cursor,
+                limit != null ? limit : defaultPageSize, TaskField.parse(fields)));
+    }
+
+    /**
+     * Tasks created or modified since a point in time, in modification order.
+     * X-Next-Cursor is returned even on the last page: passing it back later
+     * fetches only what changed in between. Deleted tasks are not reported.
+     * Changes show up after app.taskChangesLagMs, when no earlier one can still commit.
+     * No 304 here: a change becoming old enough to list does not move the list validator.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<List<TaskView>> getTaskChanges(@AuthenticationPrincipal UserPrincipal principal,
+                                                         @RequestParam(defaultValue = "false") boolean all,
+                                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String fields) {
+        return toResponse(taskService.getTasksChangedSince(ownerScope(principal, all), since, cursor,
+                limit != null ? limit : defaultPageSize, TaskField.parse(fields)));
+    }
+
+    /**
+     * Server-Sent Events feed of task changes: created, updated, transition and deleted events,
+     * each with an id. Reconnecting with Last-Event-ID replays what was missed while the
+     * server still remembers it; otherwise a reset event tells the client to reload.
+     * Only changes of the caller's tasks are sent; admins see every task with all=true.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskChanges(@AuthenticationPrincipal UserPrincipal principal,
+                                        @RequestParam(defaultValue = "false") boolean all,
+                                        @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                        @RequestParam(required = false) Long lastEventId) {
+        Long ownerId = ownerScope(principal, all);
+        return taskEventHub.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId, ownerId);
+    }
+
+    // Listings show the caller's own tasks; only admins may ask for every task
+    private static Long ownerScope(UserPrincipal principal, boolean all) {
+        if (!all)
+            return principal.getId();
+        if (!isAdmin(principal))
+            throw new AccessDeniedException("Only admins can list every task");
+        return null;
+    }
+
+    // Tasks addressed by id: users only reach their own, admins every task
+    private static Long taskScope(UserPrincipal principal) {
+        return isAdmin(principal) ? null : principal.getId();
+    }
+
+    private static boolean isAdmin(UserPrincipal principal) {
+        return principal.getAuthorities().stream().anyMatch(authority -> "ADMIN".equals(authority.getAuthority()));
+    }
+
+    /*
+     * Listings share one validator for the whole table: the task count plus the latest updatedAt.
+     * Any write changes one of them, so it is safe (if conservative) for every filtered view.
+     * There is no Last-Modified: deleting any task but the latest leaves max(updatedAt) as it
+     * was, and If-Modified-Since alone would then get a 304 for a list that lost a task.
+     * The tag is weak: the body may be sent gzipped or not, and Tomcat does not compress
+     * responses that carry a strong ETag.
+     */
+    private boolean listNotModified(WebRequest request) {
+        TaskListVersion version = taskService.getTaskListVersion();
+        LocalDateTime lastModified = version.getLastModified();
+        long micros = lastModified == null ? 0
+                : lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1000;
+        String etag = "W/\"" + version.getCount() + "-" + Long.toHexString(micros) + "\"";
+        return request.checkNotModified(etag);
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time == null ? -1 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static ResponseEntity<List<TaskView>> toResponse(TaskPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null)
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Streams every task as newline-delimited JSON, one object per line.
+     * Rows are read through a database cursor so memory use does not grow with the table.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTasks(@AuthenticationPrincipal UserPrincipal principal,
+                                                                @RequestParam(defaultValue = "false") boolean all) {
+        Long ownerId = ownerScope(principal, all);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // each value is terminated by our own newline, not Jackson's default space
+                generator.setRootValueSeparator(null);
+                taskService.forEachTask(ownerId, task -> {
+                    try {
+                        ndjsonWriter.writeValue(generator, task);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping
-    public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        Task createdTask = taskService.createTask(task);
+    public ResponseEntity<Task> createTask(@AuthenticationPrincipal UserPrincipal principal, @RequestBody Task task) {
+        Task createdTask = taskService.createTask(task, principal.getId());
         return ResponseEntity.ok(createdTask);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task task) {
-        Task updatedTask = taskService.updateTask(id, task);
+    public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task task,
+                                           @AuthenticationPrincipal UserPrincipal principal) {
+        Task updatedTask = taskService.updateTask(id, task, taskScope(principal));
         return ResponseEntity.ok(updatedTask);
     }
 
+    /**
+     * Partial update written with a single UPDATE statement.
+     * If-Match: "version" is required (428 without it): the update only applies if the task
+     * is still at that version, 412 otherwise. If-Match: * skips the check.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchTask(@PathVariable Long id, @RequestBody TaskPatchRequest patch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @AuthenticationPrincipal UserPrincipal principal) {
+        if (ifMatch == null)
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                    .body(Map.of("error", "If-Match with the task version is required, or * to skip the check"));
+        Long newVersion = taskService.patchTask(id, patch, parseVersion(ifMatch), taskScope(principal));
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+        if (newVersion != null)
+            response.eTag(Long.toString(newVersion));
+        return response.build();
+    }
+
+    /**
+     * Moves a task to another status if its current status allows it, atomically.
+     * Returns 409 if the task is not in a status that may move to the target.
+     */
+    @PostMapping("/{id}/transitions/{target}")
+    public ResponseEntity<TaskTransition> transitionTask(@PathVariable Long id, @PathVariable String target,
+                                                         @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.transitionTask(id, TaskStatus.fromName(target), taskScope(principal)));
+    }
+
+    @PatchMapping("/{id}/complete")
+    public ResponseEntity<Task> markTaskAsComplete(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.markTaskAsComplete(id, taskScope(principal)));
+    }
+
+    @PostMapping("/transitions/{target}")
+    public ResponseEntity<List<BatchItemResult>> transitionTasks(@PathVariable String target, @RequestBody List<Long> ids,
+                                                                 @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.transitionTasks(ids, TaskStatus.fromName(target), taskScope(principal)));
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-        taskService.deleteTask(id);
+    public ResponseEntity<Void> deleteTask(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal principal) {
+        taskService.deleteTask(id, taskScope(principal));
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createTasks(@AuthenticationPrincipal UserPrincipal principal,
+                                                             @RequestBody List<Task> tasks) {
+        return ResponseEntity.ok(taskService.createTasks(tasks, principal.getId()));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateTasks(@RequestBody List<Task> tasks,
+                                                             @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.updateTasks(tasks, taskScope(principal)));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteTasks(@RequestBody List<Long> ids,
+                                                             @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.deleteTasks(ids, taskScope(principal)));
+    }
+
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable String status) {
-        List<Task> tasks = taskService.getTasksByStatus(status);
+    public ResponseEntity<List<TaskView>> getTasksByStatus(@PathVariable String status, WebRequest request,
+                                                           @AuthenticationPrincipal UserPrincipal principal,
+                                                           @RequestParam(defaultValue = "false") boolean all,
+                                                           @RequestParam(required = false) String fields) {
+        Long ownerId = ownerScope(principal, all);
+        Set<TaskField> selected = TaskField.parse(fields);
+        if (listNotModified(request))
+            return null;
+        List<TaskView> tasks = taskService.getTasksByStatus(ownerId, status, selected);
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Counts of the caller's tasks per status; admins get the whole table with all=true
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getTaskStats(@AuthenticationPrincipal UserPrincipal principal,
+                                                  @RequestParam(defaultValue = "false") boolean all) {
+        return ResponseEntity.ok(taskService.getTaskStats(ownerScope(principal, all)));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<Task>> searchTasks(@RequestParam String keyword) {
-        List<Task> tasks = taskService.searchTasks(keyword);
+    public ResponseEntity<List<TaskView>> searchTasks(@AuthenticationPrincipal UserPrincipal principal,
+                                                      @RequestParam(defaultValue = "false") boolean all,
+                                                      @RequestParam String keyword,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String fields) {
+        Long ownerId = ownerScope(principal, all);
+        Set<TaskField> selected = TaskField.parse(fields);
+        List<TaskView> tasks = limit != null
+                ? taskService.searchTasks(ownerId, keyword, limit, selected)
+                : taskService.searchTasks(ownerId, keyword, selected);
         return ResponseEntity.ok(tasks);
     }
 
+    // If-Match: "3" -> 3, * -> no version check
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch.trim().equals("*"))
+            return null;
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\""))
+            value = value.substring(1, value.length() - 1);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid If-Match header " + ifMatch);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(TaskNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(TaskVersionConflictException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalTaskTransitionException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalTransition(IllegalTaskTransitionException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrentUpdate(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Task was modified concurrently, reload and retry"));
+    }
 
 }
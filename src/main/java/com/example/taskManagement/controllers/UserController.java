@@ -1,19 +1,24 @@
 package com.example.taskManagement.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.taskManagement.models.User;
+import com.example.taskManagement.security.UserPrincipal;
+import com.example.taskManagement.services.DuplicateUserException;
 import com.example.taskManagement.services.UserService;
 
 /**
@@ -99,6 +104,22 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Log out everywhere: every token of the current user stops being accepted,
+     * including the one sending this request
+     */
+    @PostMapping("/me/logout")
+    public ResponseEntity<?> logout(@AuthenticationPrincipal UserPrincipal principal) {
+        userService.revokeTokens(principal.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Renaming to a username or email another user already has
+    @ExceptionHandler(DuplicateUserException.class)
+    public ResponseEntity<String> handleDuplicateUser(DuplicateUserException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
     
 
 
@@ -0,0 +1,26 @@
+package com.example.taskManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a batch request
+ * index is the position of the item in the request, status an HTTP-like code
+ */
+@Data
+@AllArgsConstructor
+public class BatchItemResult {
+
+    private int index;
+    private Long id;
+    private int status;
+    private String error;
+
+    public static BatchItemResult ok(int index, long id) {
+        return new BatchItemResult(index, id, 200, null);
+    }
+
+    public static BatchItemResult failed(int index, Long id, int status, String error) {
+        return new BatchItemResult(index, id, status, error);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.taskManagement.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Task attributes a listing can select with ?fields=
+ * The property is both the entity attribute and the JSON name
+ */
+public enum TaskField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    STATUS("status"),
+    OWNER_ID("ownerId"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    /**
+     * What listings return without ?fields=, enough to render a task list
+     */
+    public static final Set<TaskField> DEFAULT = Collections.unmodifiableSet(EnumSet.of(ID, TITLE, STATUS, UPDATED_AT));
+
+    public static final Set<TaskField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+    private final String property;
+
+    TaskField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of properties, e.g. "id,title,description"
+     * @return The DEFAULT fields when the list is null or blank
+     * @throws IllegalArgumentException if a name is not a task field
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank())
+            return DEFAULT;
+        EnumSet<TaskField> parsed = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            TaskField field = fromProperty(name.trim());
+            if (field == null)
+                throw new IllegalArgumentException("Unknown task field " + name.trim());
+            parsed.add(field);
+        }
+        return parsed;
+    }
+
+    private static TaskField fromProperty(String property) {
+        for (TaskField field : values()) {
+            if (field.property.equals(property))
+                return field;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.taskManagement.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Cheap validator for task listings: any create, update or delete
+ * changes the count or the latest modification time
+ */
+@Data
+@AllArgsConstructor
+public class TaskListVersion {
+
+    private long count;
+    private LocalDateTime lastModified;  // null when there are no tasks
+
+}
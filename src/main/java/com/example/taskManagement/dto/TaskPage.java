@@ -0,0 +1,19 @@
+package com.example.taskManagement.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One page of a keyset-paginated task listing, holding the selected fields of each task.
+ * nextCursor is null when there are no more tasks to fetch.
+ */
+@Data
+@AllArgsConstructor
+public class TaskPage {
+
+    private List<TaskView> items;
+    private String nextCursor;
+
+}
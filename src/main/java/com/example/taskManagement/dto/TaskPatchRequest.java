@@ -0,0 +1,17 @@
+package com.example.taskManagement.dto;
+
+import com.example.taskManagement.models.TaskStatus;
+
+import lombok.Data;
+
+/**
+ * Partial task update, only the non-null fields are written
+ */
+@Data
+public class TaskPatchRequest {
+
+    private String title;
+    private String description;
+    private TaskStatus status;
+
+}
@@ -0,0 +1,17 @@
+package com.example.taskManagement.dto;
+
+import java.util.Map;
+
+import com.example.taskManagement.models.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TaskStats {
+
+    private Map<TaskStatus, Long> byStatus;
+    private long total;
+
+}
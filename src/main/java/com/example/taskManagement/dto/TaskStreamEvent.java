@@ -0,0 +1,25 @@
+package com.example.taskManagement.dto;
+
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One entry of the task change feed (GET /api/tasks/stream)
+ * type is created, updated, transition (only the status changed) or deleted
+ */
+@Data
+@AllArgsConstructor
+public class TaskStreamEvent {
+
+    private long id;
+    private String type;
+    private long taskId;
+    private Long ownerId;
+    private Task task; // null for deleted; only the changed fields when partial
+    private TaskStatus previousStatus;
+    private boolean partial;
+
+}
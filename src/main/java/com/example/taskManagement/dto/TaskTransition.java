@@ -0,0 +1,19 @@
+package com.example.taskManagement.dto;
+
+import com.example.taskManagement.models.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A status change that was applied to a task
+ */
+@Data
+@AllArgsConstructor
+public class TaskTransition {
+
+    private long id;
+    private TaskStatus from;
+    private TaskStatus to;
+
+}
@@ -0,0 +1,55 @@
+package com.example.taskManagement.dto;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Projection of a task holding only the columns a listing selected
+ * Serialized as an object with the requested fields, in TaskField order; columns
+ * selected only to build the next cursor are readable but not serialized
+ */
+@JsonSerialize(using = TaskView.Serializer.class)
+public class TaskView {
+
+    private final Set<TaskField> fields;
+    private final Object[] values = new Object[TaskField.values().length];
+
+    public TaskView(Set<TaskField> fields) {
+        this.fields = fields;
+    }
+
+    public Set<TaskField> getFields() {
+        return fields;
+    }
+
+    public Object get(TaskField field) {
+        return values[field.ordinal()];
+    }
+
+    public void set(TaskField field, Object value) {
+        values[field.ordinal()] = value;
+    }
+
+    // writes the fields straight from the array, no intermediate map per row
+    static class Serializer extends StdSerializer<TaskView> {
+
+        Serializer() {
+            super(TaskView.class);
+        }
+
+        @Override
+        public void serialize(TaskView view, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(view);
+            for (TaskField field : view.fields) {
+                generator.writeFieldName(field.getProperty());
+                provider.defaultSerializeValue(view.values[field.ordinal()], generator);
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.taskManagement.dto;
+
+import com.example.taskManagement.models.Role;
+
+/**
+ * A user as listed to admins, selected column by column: no password hash, no token version
+ */
+public record UserSummary(Long id, String username, String email, Role role) {
+}
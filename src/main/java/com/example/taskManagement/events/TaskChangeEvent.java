@@ -0,0 +1,46 @@
+package com.example.taskManagement.events;
+
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+
+import lombok.Value;
+
+/**
+ * Published by TaskServiceImpl after a task was written
+ * Listeners keep in-memory views of the tasks table (search index, ...) in sync
+ */
+@Value
+public class TaskChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    Type type;
+    long taskId;
+    Long ownerId; // owner of the task, null if it has none
+    Task task; // state after the change, null for DELETED
+    TaskStatus previousStatus; // status before the change, null for CREATED or when unchanged
+    boolean partial; // task only holds the fields that changed, the others are null
+
+    public static TaskChangeEvent created(Task task) {
+        return new TaskChangeEvent(Type.CREATED, task.getId(), task.getOwnerId(), task, null, false);
+    }
+
+    public static TaskChangeEvent updated(Task task, TaskStatus previousStatus) {
+        return new TaskChangeEvent(Type.UPDATED, task.getId(), task.getOwnerId(), task, previousStatus, false);
+    }
+
+    /**
+     * Update written without loading the row, only the changed fields are known
+     */
+    public static TaskChangeEvent patched(Task changedFields, Long ownerId, TaskStatus previousStatus) {
+        return new TaskChangeEvent(Type.UPDATED, changedFields.getId(), ownerId, changedFields, previousStatus, true);
+    }
+
+    public static TaskChangeEvent deleted(long taskId, Long ownerId, TaskStatus previousStatus) {
+        return new TaskChangeEvent(Type.DELETED, taskId, ownerId, null, previousStatus, false);
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.taskManagement.events;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.taskManagement.dto.TaskStreamEvent;
+import com.example.taskManagement.models.Task;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans committed task changes out to Server-Sent Events subscribers
+ * Every change gets an increasing id and is kept in a fixed-size ring buffer,
+ * so a client reconnecting with Last-Event-ID receives what it missed
+ * Ids start from the boot time in microseconds, so an id handed out before a
+ * restart is recognized as unknown and the client is told to reload
+ * Nothing is locked: a publisher takes its id from an atomic sequence, stores the
+ * event in its ring slot with a compare-and-set and wakes the subscribers; each
+ * subscriber reads the ring in id order from its own cursor, drained by a small
+ * sender pool, and one that falls too far behind is disconnected (it can
+ * reconnect and resume from the ring buffer)
+ * Subscribers only receive the changes of their owner's tasks, except admin
+ * feeds opened for every task
+ */
+@Component
+public class TaskEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventHub.class);
+
+    // ids of this run are above firstId; an earlier run would have needed over a
+    // thousand events per millisecond of uptime to reach it
+    private final long firstId = System.currentTimeMillis() * 1000;
+    private final AtomicLong sequence = new AtomicLong(firstId);
+    private final AtomicReferenceArray<TaskStreamEvent> ring;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int subscriberBuffer;
+    private final long timeoutMs;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter droppedSubscribers;
+
+    public TaskEventHub(@Value("${app.taskStreamReplaySize:10000}") int replaySize,
+                        @Value("${app.taskStreamSubscriberBuffer:1000}") int subscriberBuffer,
+                        @Value("${app.taskStreamSenderThreads:4}") int senderThreads,
+                        @Value("${app.taskStreamHeartbeatMs:15000}") long heartbeatMs,
+                        @Value("${app.taskStreamTimeoutMs:1800000}") long timeoutMs,
+                        MeterRegistry meterRegistry) {
+        this.ring = new AtomicReferenceArray<>(replaySize);
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // comments keep idle connections alive through proxies and reveal dead clients
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat),
+                heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("tasks.stream.subscribers", subscribers, List::size)
+                .description("Open task change feed connections")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("tasks.stream.dropped")
+                .description("Subscribers disconnected because they fell behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a committed change and wakes every subscriber
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent change) {
+        long id = sequence.incrementAndGet();
+        TaskStreamEvent event = new TaskStreamEvent(id, typeOf(change), change.getTaskId(), change.getOwnerId(),
+                change.getTask(), change.getPreviousStatus(), change.isPartial());
+        // a publisher that took an older id and stalled never overwrites this one
+        int slot = slot(id);
+        TaskStreamEvent previous = ring.get(slot);
+        while ((previous == null || previous.getId() < id) && !ring.compareAndSet(slot, previous, event))
+            previous = ring.get(slot);
+        for (Subscriber subscriber : subscribers)
+            subscriber.published(event);
+    }
+
+    /**
+     * Opens a feed for one client
+     *
+     * @param lastEventId Id of the last event the client received, null to only get new events
+     * @param ownerId Only send changes of this user's tasks, null for every task
+     */
+    public SseEmitter subscribe(Long lastEventId, Long ownerId) {
+        return subscribe(new SseEmitter(timeoutMs), lastEventId, ownerId);
+    }
+
+    // the emitter is passed in by the tests
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId, Long ownerId) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId, sequence.get(), ownerId);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        // events published while registering woke nobody, this drain reads them from the ring
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    private int slot(long id) {
+        return (int) (id % ring.length());
+    }
+
+    private static String typeOf(TaskChangeEvent change) {
+        switch (change.getType()) {
+            case CREATED:
+                return "created";
+            case DELETED:
+                return "deleted";
+            default:
+                Task task = change.getTask();
+                boolean statusOnly = change.isPartial() && task.getTitle() == null && task.getDescription() == null;
+                boolean statusChanged = task.getStatus() != null && change.getPreviousStatus() != null
+                        && task.getStatus() != change.getPreviousStatus();
+                return statusOnly && statusChanged ? "transition" : "updated";
+        }
+    }
+
+    /**
+     * One connection: a cursor into the ring plus a flag making sure at most
+     * one sender thread writes to the connection at a time
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long ownerId;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private volatile long next; // id of the next event to send, advanced by the sender thread only
+        private boolean resetDue; // the client asked for events the ring no longer holds (sender thread only)
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Long lastEventId, long current, Long ownerId) {
+            this.emitter = emitter;
+            this.ownerId = ownerId;
+            if (lastEventId == null) {
+                next = current + 1;
+                return;
+            }
+            long oldest = Math.max(firstId + 1, current - ring.length() + 1);
+            // the client missed more than the ring holds, or its id comes from
+            // before a restart, and has to reload
+            resetDue = lastEventId + 1 < oldest || lastEventId > current;
+            next = resetDue ? oldest : lastEventId + 1;
+        }
+
+        boolean accepts(TaskStreamEvent event) {
+            return ownerId == null || ownerId.equals(event.getOwnerId());
+        }
+
+        void published(TaskStreamEvent event) {
+            if (closed || !accepts(event))
+                return;
+            if (event.getId() - next >= subscriberBuffer) {
+                // too slow: disconnect, the client resumes from the ring buffer
+                droppedSubscribers.increment();
+                close(null);
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true))
+                senders.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                if (resetDue) {
+                    sendReset();
+                    resetDue = false;
+                }
+                if (heartbeatDue.getAndSet(false))
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                TaskStreamEvent event;
+                while (!closed && (event = ring.get(slot(next))) != null && event.getId() >= next) {
+                    if (event.getId() > next) {
+                        // overwritten by newer events before it was sent, the rest of the gap is lost too
+                        sendReset();
+                        next = Math.max(next, sequence.get() - ring.length() + 1);
+                        continue;
+                    }
+                    next++;
+                    if (accepts(event))
+                        send(event);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close(ex);
+            } finally {
+                draining.set(false);
+            }
+            // an event or heartbeat arriving while the flag was still set did not schedule a drain
+            if (heartbeatDue.get() || isPublished(ring.get(slot(next))))
+                scheduleDrain();
+        }
+
+        private boolean isPublished(TaskStreamEvent event) {
+            return event != null && event.getId() >= next;
+        }
+
+        private void sendReset() throws IOException {
+            emitter.send(SseEmitter.event().name("reset")
+                    .data("{\"lastEventId\":" + sequence.get() + "}", MediaType.APPLICATION_JSON));
+        }
+
+        private void send(TaskStreamEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.getId()))
+                    .name(event.getType())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        private void close(Throwable cause) {
+            if (closed)
+                return;
+            closed = true;
+            subscribers.remove(this);
+            if (cause != null)
+                logger.debug("Task stream subscriber closed: {}", cause.getMessage());
+            try {
+                emitter.complete();
+            } catch (RuntimeException ex) {
+                // already completed by the container
+            }
+        }
+    }
+}
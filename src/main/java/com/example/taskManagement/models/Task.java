@@ -1,28 +1,98 @@
 package com.example.taskManagement.models;
 
 import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CacheLayout;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.QueryCacheLayout;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
-@Table(name = "tasks")
+// status leads the composite index, so it also serves plain status lookups;
+// the (timestamp, id) indexes back the keyset-paginated time range queries;
+// the owner_id ones keep per-user listings within the caller's own rows
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_status_updated_at", columnList = "status, updated_at"),
+        @Index(name = "idx_tasks_owner_status_updated_at", columnList = "owner_id, status, updated_at"),
+        @Index(name = "idx_tasks_owner_id", columnList = "owner_id, id"),
+        @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_tasks_updated_at_id", columnList = "updated_at, id")
+})
+// Second-level cached; cached query results hold whole tasks, so replaying them never
+// falls back to one SELECT per task after the entity region evicted some of them
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@QueryCacheLayout(layout = CacheLayout.FULL)
 @Data
 public class Task {
+
+    public static final String CACHE_REGION = "tasks";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private long id;
 
     private String title;
 
     private String description;
 
-    private String status = "PENDING"; // PENDING, IN_PROGRESS, COMPLETED
-    
+    // Stored by name in a checked varchar, not H2's ENUM type: after crash recovery H2 can
+    // read ENUM values back as bare ordinals; null in a request body means "leave unchanged"
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private TaskStatus status;
+
+    // User who created the task; never loaded with it, queries filter on ownerId
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", foreignKey = @ForeignKey(name = "fk_tasks_owner"))
+    private User owner;
+
+    // Same column as owner, readable without touching the User
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "owner_id", insertable = false, updatable = false)
+    private Long ownerId;
+
+    public void setOwner(User owner) {
+        this.owner = owner;
+        this.ownerId = owner == null ? null : owner.getId();
+    }
+
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Optimistic locking: bumped on every write, a stale write fails instead of overwriting
+    @Version
+    private long version;
+
 }
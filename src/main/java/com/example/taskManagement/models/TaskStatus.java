@@ -0,0 +1,48 @@
+package com.example.taskManagement.models;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Task lifecycle
+ * PENDING -> IN_PROGRESS (claimed by a worker), IN_PROGRESS -> PENDING (released),
+ * PENDING or IN_PROGRESS -> COMPLETED; COMPLETED is final
+ */
+public enum TaskStatus {
+    PENDING,
+    IN_PROGRESS,
+    COMPLETED;
+
+    private static final Map<TaskStatus, List<TaskStatus>> PREDECESSORS = new EnumMap<>(TaskStatus.class);
+
+    static {
+        PREDECESSORS.put(PENDING, List.of(IN_PROGRESS));
+        PREDECESSORS.put(IN_PROGRESS, List.of(PENDING));
+        // most completions come from a worker holding the task, so IN_PROGRESS is tried first
+        PREDECESSORS.put(COMPLETED, List.of(IN_PROGRESS, PENDING));
+    }
+
+    /**
+     * Statuses a task may be in to move to this one, the most likely first
+     */
+    public List<TaskStatus> predecessors() {
+        return PREDECESSORS.get(this);
+    }
+
+    public boolean canTransitionTo(TaskStatus target) {
+        return target.predecessors().contains(this);
+    }
+
+    /**
+     * Parses a status name coming from a request
+     * @throws IllegalArgumentException if the name is not a known status
+     */
+    public static TaskStatus fromName(String name) {
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new IllegalArgumentException("Invalid status " + name);
+        }
+    }
+}
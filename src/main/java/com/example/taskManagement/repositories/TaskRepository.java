@@ -1,17 +1,101 @@
 package com.example.taskManagement.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.taskManagement.models.Task;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    // Query cache region of the status lookups (TaskRepositoryCustom.findByStatus),
+    // cleared after JDBC status changes (see TaskCacheInvalidator)
+    String QUERY_CACHE_REGION = "task-queries";
+
+    List<Task> findByOwnerId(Long ownerId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Task> streamAllByOwnerIdOrderByIdAsc(Long ownerId);
+
+    /**
+     * Detaches the tasks of a user about to be deleted, they stay visible to admins
+     */
+    @Modifying
+    @Query("update Task t set t.owner = null where t.ownerId = :ownerId")
+    int clearOwner(@Param("ownerId") Long ownerId);
+
+    /**
+     * The ids among the given ones that exist and belong to the owner (any owner when null)
+     */
+    @Query("select t.id from Task t where t.id in :ids and (:ownerId is null or t.ownerId = :ownerId)")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+
+    /**
+     * The given tasks that belong to the owner (any owner when null), read from the table with
+     * their rows locked until the transaction ends, so no status change slips in before a delete
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id in :ids and (:ownerId is null or t.ownerId = :ownerId)")
+    List<Task> findAllForUpdate(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+
+    /**
+     * Owners of the given tasks, as (Long id, Long ownerId) rows
+     */
+    @Query("select t.id, t.ownerId from Task t where t.id in :ids")
+    List<Object[]> findOwnerIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Current versions of the given tasks, as (Long id, Long version) rows; read from the table, not the cache
+     */
+    @Query("select t.id, t.version from Task t where t.id in :ids")
+    List<Object[]> findVersions(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Number of tasks per status, as (TaskStatus, Long) rows
+     */
+    @Query("select t.status, count(t) from Task t group by t.status")
+    List<Object[]> countGroupByStatus();
+
+    /**
+     * Number of tasks per owner and status, as (Long, TaskStatus, Long) rows, tasks without an owner left out
+     */
+    @Query("select t.ownerId, t.status, count(t) from Task t where t.ownerId is not null group by t.ownerId, t.status")
+    List<Object[]> countGroupByOwnerAndStatus();
 
-    List<Task> findByStatus(String status);
+    /**
+     * Latest modification time of any task, read from the updated_at index
+     */
+    @Query("select max(t.updatedAt) from Task t")
+    LocalDateTime findLastUpdatedAt();
 
-    List<Task> findByTitleContainingIgnoreCase(String title);
+    /**
+     * Streams every task in id order with a bounded JDBC fetch size.
+     * Must be consumed inside a transaction and closed afterwards.
+     * Bypasses the second-level cache, a full scan would only push the hot tasks out.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Task> streamAllByOrderByIdAsc();
 
 }
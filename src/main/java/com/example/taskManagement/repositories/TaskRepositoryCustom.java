@@ -0,0 +1,91 @@
+package com.example.taskManagement.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.example.taskManagement.dto.TaskField;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.dto.TaskView;
+import com.example.taskManagement.models.TaskStatus;
+
+/**
+ * Task queries that Spring Data cannot derive
+ * The listings select only the requested columns and return them as TaskViews;
+ * every field parameter is the set of fields the views serialize
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Writes the non-null fields of the patch with a single UPDATE, bumping version and updatedAt
+     * Runs through JDBC, the caller evicts the task from the second-level cache
+     *
+     * @param id Task to update
+     * @param patch Fields to set
+     * @param expectedVersion Only update if the task is at this version, null to skip the check
+     * @param expectedStatus Only update if the task has this status, null to skip the check
+     * @param ownerId Only update if the task belongs to this user, null for any owner
+     * @return Number of rows updated, 0 or 1
+     */
+    int patch(long id, TaskPatchRequest patch, Long expectedVersion, TaskStatus expectedStatus, Long ownerId);
+
+    /**
+     * Compare-and-set status change for many tasks, sent as one JDBC batch
+     * The caller evicts the moved tasks from the second-level cache
+     *
+     * @param ids Tasks to move
+     * @param from Status a task must currently have to be moved
+     * @param to New status
+     * @param ownerId Only move tasks of this user, null for any owner
+     * @return Rows updated per id, in the order of ids (1 = moved, 0 = not in the from status or not owned)
+     */
+    int[] transitionAll(List<Long> ids, TaskStatus from, TaskStatus to, Long ownerId);
+
+    /**
+     * Keyset page in id order
+     *
+     * @param ownerId Only tasks of this user, null for every task
+     * @param afterId Id of the last task already returned, 0 for the first page
+     * @param limit Maximum number of tasks returned
+     * @param fields Columns to select, the id is always selected for the cursor
+     */
+    List<TaskView> findPage(Long ownerId, long afterId, int limit, Set<TaskField> fields);
+
+    /**
+     * Keyset page over a time range, ordered by (timestamp, id)
+     * The timestamp and id are always selected for the cursor
+     *
+     * @param ownerId Only tasks of this user, null for every task
+     * @param timeField "createdAt" or "updatedAt"
+     * @param since Inclusive lower bound, null for none
+     * @param until Exclusive upper bound, null for none
+     * @param after Timestamp of the last task already returned, null for the first page
+     * @param afterId Id of the last task already returned, ignored when after is null
+     * @param newestFirst Descending order instead of ascending
+     * @param limit Maximum number of tasks returned
+     */
+    List<TaskView> findTimeRange(Long ownerId, String timeField, LocalDateTime since, LocalDateTime until,
+                                 LocalDateTime after, long afterId, boolean newestFirst, int limit,
+                                 Set<TaskField> fields);
+
+    /**
+     * Tasks in a status, through the query cache (region TaskRepository.QUERY_CACHE_REGION)
+     *
+     * @param ownerId Only tasks of this user, null for every task
+     */
+    List<TaskView> findByStatus(Long ownerId, TaskStatus status, Set<TaskField> fields);
+
+    /**
+     * The tasks with the given ids, in no particular order; the id is always selected
+     */
+    List<TaskView> findByIds(Collection<Long> ids, Set<TaskField> fields);
+
+    /**
+     * Tasks whose title contains the keyword, ignoring case, in id order
+     *
+     * @param ownerId Only tasks of this user, null for every task
+     */
+    List<TaskView> findByTitleContaining(Long ownerId, String keyword, int limit, Set<TaskField> fields);
+
+}
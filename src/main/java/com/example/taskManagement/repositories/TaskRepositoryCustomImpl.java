@@ -0,0 +1,225 @@
+package com.example.taskManagement.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.taskManagement.dto.TaskField;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.dto.TaskView;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final String TRANSITION_SQL =
+            "update tasks set status = ?, updated_at = ?, version = version + 1 where id = ? and status = ?";
+    private static final String OWNED_TRANSITION_SQL = TRANSITION_SQL + " and owner_id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int patch(long id, TaskPatchRequest patch, Long expectedVersion, TaskStatus expectedStatus, Long ownerId) {
+        // plain JDBC: Hibernate answers a JPQL/Criteria bulk update by evicting every task from
+        // the second-level cache, TaskCacheInvalidator evicts only this one, before the write and after the commit
+        StringBuilder sql = new StringBuilder("update tasks set ");
+        List<Object> arguments = new ArrayList<>();
+
+        // only the columns that change end up in the SET clause
+        if (patch.getTitle() != null) {
+            sql.append("title = ?, ");
+            arguments.add(patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            sql.append("description = ?, ");
+            arguments.add(patch.getDescription());
+        }
+        if (patch.getStatus() != null) {
+            sql.append("status = ?, ");
+            arguments.add(patch.getStatus().name());
+        }
+        sql.append("updated_at = ?, version = version + 1 where id = ?");
+        arguments.add(Timestamp.valueOf(LocalDateTime.now()));
+        arguments.add(id);
+
+        if (expectedVersion != null) {
+            sql.append(" and version = ?");
+            arguments.add(expectedVersion);
+        }
+        if (expectedStatus != null) {
+            sql.append(" and status = ?");
+            arguments.add(expectedStatus.name());
+        }
+        if (ownerId != null) {
+            sql.append(" and owner_id = ?");
+            arguments.add(ownerId);
+        }
+        return jdbcTemplate.update(sql.toString(), arguments.toArray());
+    }
+
+    @Override
+    public int[] transitionAll(List<Long> ids, TaskStatus from, TaskStatus to, Long ownerId) {
+        // plain JDBC: unlike JPQL bulk updates, a JDBC batch reports the update count of every statement
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> arguments = new ArrayList<>(ids.size());
+        for (Long id : ids)
+            arguments.add(ownerId == null
+                    ? new Object[] { to.name(), now, id, from.name() }
+                    : new Object[] { to.name(), now, id, from.name(), ownerId });
+        return jdbcTemplate.batchUpdate(ownerId == null ? TRANSITION_SQL : OWNED_TRANSITION_SQL, arguments);
+    }
+
+    @Override
+    public List<TaskView> findPage(Long ownerId, long afterId, int limit, Set<TaskField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        Set<TaskField> selected = select(query, task, fields, TaskField.ID);
+        Path<Long> id = task.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (ownerId != null)
+            where.add(cb.equal(task.get("ownerId"), ownerId));
+        where.add(cb.greaterThan(id, afterId));
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(id));
+
+        return toViews(entityManager.createQuery(query).setMaxResults(limit).getResultList(), selected, fields);
+    }
+
+    @Override
+    public List<TaskView> findTimeRange(Long ownerId, String timeField, LocalDateTime since, LocalDateTime until,
+                                        LocalDateTime after, long afterId, boolean newestFirst, int limit,
+                                        Set<TaskField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        Set<TaskField> selected = select(query, task, fields,
+                TaskField.ID, "updatedAt".equals(timeField) ? TaskField.UPDATED_AT : TaskField.CREATED_AT);
+        Path<LocalDateTime> time = task.get(timeField);
+        Path<Long> id = task.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (ownerId != null)
+            where.add(cb.equal(task.get("ownerId"), ownerId));
+        if (since != null)
+            where.add(cb.greaterThanOrEqualTo(time, since));
+        if (until != null)
+            where.add(cb.lessThan(time, until));
+        if (after != null) {
+            // (time, id) > (after, afterId), spelled out so the (time, id) index can seek to it
+            where.add(newestFirst
+                    ? cb.or(cb.lessThan(time, after), cb.and(cb.equal(time, after), cb.lessThan(id, afterId)))
+                    : cb.or(cb.greaterThan(time, after), cb.and(cb.equal(time, after), cb.greaterThan(id, afterId))));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(newestFirst
+                ? List.of(cb.desc(time), cb.desc(id))
+                : List.of(cb.asc(time), cb.asc(id)));
+
+        return toViews(entityManager.createQuery(query).setMaxResults(limit).getResultList(), selected, fields);
+    }
+
+    @Override
+    public List<TaskView> findByStatus(Long ownerId, TaskStatus status, Set<TaskField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        Set<TaskField> selected = select(query, task, fields);
+
+        List<Predicate> where = new ArrayList<>();
+        if (ownerId != null)
+            where.add(cb.equal(task.get("ownerId"), ownerId));
+        where.add(cb.equal(task.get("status"), status));
+        query.where(where.toArray(new Predicate[0]));
+
+        // each field list is its own SQL, so its own query cache entry
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, TaskRepository.QUERY_CACHE_REGION)
+                .getResultList();
+        return toViews(rows, selected, fields);
+    }
+
+    @Override
+    public List<TaskView> findByIds(Collection<Long> ids, Set<TaskField> fields) {
+        if (ids.isEmpty())
+            return Collections.emptyList();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        Set<TaskField> selected = select(query, task, fields, TaskField.ID);
+        query.where(task.get("id").in(ids));
+
+        return toViews(entityManager.createQuery(query).getResultList(), selected, fields);
+    }
+
+    @Override
+    public List<TaskView> findByTitleContaining(Long ownerId, String keyword, int limit, Set<TaskField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        Set<TaskField> selected = select(query, task, fields);
+
+        // the keyword matches literally, LIKE wildcards in it are escaped
+        String pattern = "%" + keyword.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<Predicate> where = new ArrayList<>();
+        if (ownerId != null)
+            where.add(cb.equal(task.get("ownerId"), ownerId));
+        where.add(cb.like(cb.lower(task.get("title")), pattern, '\\'));
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(task.get("id")));
+
+        return toViews(entityManager.createQuery(query).setMaxResults(limit).getResultList(), selected, fields);
+    }
+
+    // Selects the requested fields plus the ones the caller needs itself, in TaskField order
+    private static Set<TaskField> select(CriteriaQuery<Tuple> query, Root<Task> task, Set<TaskField> fields,
+                                         TaskField... required) {
+        EnumSet<TaskField> selected = EnumSet.noneOf(TaskField.class);
+        selected.addAll(fields);
+        Collections.addAll(selected, required);
+        List<Selection<?>> columns = new ArrayList<>(selected.size());
+        for (TaskField field : selected)
+            columns.add(task.get(field.getProperty()));
+        query.multiselect(columns);
+        return selected;
+    }
+
+    private static List<TaskView> toViews(List<Tuple> rows, Set<TaskField> selected, Set<TaskField> fields) {
+        List<TaskView> views = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            TaskView view = new TaskView(fields);
+            int column = 0;
+            for (TaskField field : selected)
+                view.set(field, row.get(column++));
+            views.add(view);
+        }
+        return views;
+    }
+}
@@ -1,16 +1,59 @@
 package com.example.taskManagement.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.taskManagement.dto.UserSummary;
 import com.example.taskManagement.models.User;
 
+import jakarta.persistence.QueryHint;
+
 public interface UserRepository extends JpaRepository<User, Long> {
-    
+
+    String QUERY_CACHE_REGION = "user-queries";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Every (username, email) pair, without loading whole users
+     */
+    @Query("select u.username, u.email from User u")
+    List<Object[]> findAllUsernamesAndEmails();
+
+    /**
+     * The token version of a user, empty when the user no longer exists
+     * Not read-only: a replica may not have the version a logout just bumped
+     */
+    @Transactional
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Long> findTokenVersion(@Param("id") Long id);
+
+    /**
+     * Every (id, token version) pair, for the token revocation list
+     * Not read-only, for the same reason as findTokenVersion
+     */
+    @Transactional
+    @Query("select u.id, u.tokenVersion from User u")
+    List<Object[]> findAllTokenVersions();
+
+    /**
+     * Every user, only the columns an admin listing shows
+     */
+    @Query("select new com.example.taskManagement.dto.UserSummary(u.id, u.username, u.email, u.role) from User u order by u.id")
+    List<UserSummary> findAllSummaries();
 }
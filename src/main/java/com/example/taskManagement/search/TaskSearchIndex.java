@@ -0,0 +1,351 @@
+package com.example.taskManagement.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.taskManagement.events.TaskChangeEvent;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.repositories.TaskRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * In-memory inverted index over task titles and descriptions
+ * Words are indexed both whole (token postings) and as trigrams, so a
+ * query term can match anywhere inside a word, like the SQL LIKE it replaces,
+ * without scanning the table
+ * The index is built from the database at startup, before the web server
+ * accepts requests, and kept up to date from TaskChangeEvents
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Entities are detached in batches of this size while rebuilding
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // Scores per matched term; title matches rank above description matches
+    private static final int TITLE_WORD_SCORE = 4;
+    private static final int TITLE_SUBSTRING_SCORE = 2;
+    private static final int DESCRIPTION_WORD_SCORE = 2;
+    private static final int DESCRIPTION_SUBSTRING_SCORE = 1;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // When disabled the index stays empty and searches go to the database
+    @Value("${app.taskSearchIndexEnabled:true}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> tokenPostings = new HashMap<>();
+    private final Map<String, Set<Long>> trigramPostings = new HashMap<>();
+
+    // Runs while the context starts, so no search ever sees a partial index and no request
+    // commits a change the initial build could clear; called directly, hence the template
+    @PostConstruct
+    void build() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> rebuild());
+    }
+
+    /**
+     * Rebuilds the whole index from a streamed scan of the tasks table
+     * A change committed during a later rebuild waits for the write lock and is
+     * applied once the scan is done
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled)
+            return;
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokenPostings.clear();
+            trigramPostings.clear();
+            int count = 0;
+            try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+                for (Task task : (Iterable<Task>) tasks::iterator) {
+                    add(task.getId(), task.getOwnerId(), normalize(task.getTitle()), normalize(task.getDescription()));
+                    if (++count % REBUILD_BATCH_SIZE == 0)
+                        entityManager.clear();
+                }
+            }
+            logger.info("Indexed {} tasks for search in {} ms", count, System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed task change to the index
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        if (!enabled)
+            return;
+        lock.writeLock().lock();
+        try {
+            Document previous = remove(event.getTaskId());
+            if (event.getType() == TaskChangeEvent.Type.DELETED)
+                return;
+            Task task = event.getTask();
+            String title = normalize(task.getTitle());
+            String description = normalize(task.getDescription());
+            if (event.isPartial() && previous != null) {
+                // fields missing from a partial update keep their indexed text
+                if (task.getTitle() == null)
+                    title = previous.title;
+                if (task.getDescription() == null)
+                    description = previous.description;
+            }
+            // the task of a partial update has no owner, the event always does
+            add(task.getId(), event.getOwnerId(), title, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the tasks matching every term of the query, best matches first
+     *
+     * @param query Free text, split into terms the same way titles are
+     * @param limit Maximum number of ids returned
+     * @return Ids of matching tasks ordered by descending score, then newest first
+     */
+    public List<Long> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /**
+     * Same as {@link #search(String, int)}, restricted to the tasks of one owner
+     *
+     * @param ownerId Owner of the returned tasks, null for every task
+     */
+    public List<Long> search(String query, Long ownerId, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty())
+            return Collections.emptyList();
+        // the longest term usually has the fewest candidates
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<ScoredId> top = new PriorityQueue<>(limit + 1);
+            for (Long id : candidates(terms.get(0))) {
+                Document document = documents.get(id);
+                if (ownerId != null && !ownerId.equals(document.ownerId))
+                    continue;
+                int score = 0;
+                for (String term : terms) {
+                    int termScore = document.score(term);
+                    if (termScore == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += termScore;
+                }
+                if (score > 0) {
+                    top.offer(new ScoredId(id, score));
+                    if (top.size() > limit)
+                        top.poll();
+                }
+            }
+
+            List<Long> ids = new ArrayList<>(top.size());
+            while (!top.isEmpty())
+                ids.add(top.poll().id);
+            Collections.reverse(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Number of tasks currently indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of tasks that may contain the term, must be confirmed with Document.score
+    private Set<Long> candidates(String term) {
+        if (term.length() < 3) {
+            // too short for trigrams: union the postings of every word containing it
+            Set<Long> result = new HashSet<>();
+            tokenPostings.forEach((token, ids) -> {
+                if (token.contains(term))
+                    result.addAll(ids);
+            });
+            return result;
+        }
+
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String trigram : trigrams(term)) {
+            Set<Long> ids = trigramPostings.get(trigram);
+            if (ids == null)
+                return Collections.emptySet();
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++)
+            result.retainAll(postings.get(i));
+        return result;
+    }
+
+    private void add(long taskId, Long ownerId, String title, String description) {
+        Document document = new Document(ownerId, title, description);
+        documents.put(taskId, document);
+        for (String token : document.tokens()) {
+            tokenPostings.computeIfAbsent(token, key -> new HashSet<>()).add(taskId);
+            for (String trigram : trigrams(token))
+                trigramPostings.computeIfAbsent(trigram, key -> new HashSet<>()).add(taskId);
+        }
+    }
+
+    private Document remove(long taskId) {
+        Document document = documents.remove(taskId);
+        if (document == null)
+            return null;
+        for (String token : document.tokens()) {
+            removePosting(tokenPostings, token, taskId);
+            for (String trigram : trigrams(token))
+                removePosting(trigramPostings, trigram, taskId);
+        }
+        return document;
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, long taskId) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(taskId) && ids.isEmpty())
+            postings.remove(key);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty())
+                tokens.add(token);
+        }
+        return tokens;
+    }
+
+    static Set<String> trigrams(String token) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= token.length(); i++)
+            trigrams.add(token.substring(i, i + 3));
+        return trigrams;
+    }
+
+    /**
+     * Owner and normalized text of one task plus its words
+     */
+    private static final class Document {
+
+        private final Long ownerId;
+        private final String title;
+        private final String description;
+        private final Set<String> titleTokens;
+        private final Set<String> descriptionTokens;
+
+        Document(Long ownerId, String title, String description) {
+            this.ownerId = ownerId;
+            this.title = title;
+            this.description = description;
+            this.titleTokens = tokenize(title);
+            this.descriptionTokens = tokenize(description);
+        }
+
+        Set<String> tokens() {
+            Set<String> tokens = new HashSet<>(titleTokens);
+            tokens.addAll(descriptionTokens);
+            return tokens;
+        }
+
+        // 0 when the term appears neither in the title nor in the description
+        int score(String term) {
+            int score = 0;
+            if (titleTokens.contains(term))
+                score += TITLE_WORD_SCORE;
+            else if (title.contains(term))
+                score += TITLE_SUBSTRING_SCORE;
+            if (descriptionTokens.contains(term))
+                score += DESCRIPTION_WORD_SCORE;
+            else if (description.contains(term))
+                score += DESCRIPTION_SUBSTRING_SCORE;
+            return score;
+        }
+    }
+
+    /**
+     * Heap entry ordered so the weakest match is polled first
+     */
+    private static final class ScoredId implements Comparable<ScoredId> {
+
+        private final long id;
+        private final int score;
+
+        ScoredId(long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(ScoredId other) {
+            int byScore = Integer.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(id, other.id);
+        }
+    }
+}
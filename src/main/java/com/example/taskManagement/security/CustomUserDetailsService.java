@@ -4,26 +4,31 @@ import java.util.Collections;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.example.taskManagement.models.User;
 import com.example.taskManagement.repositories.UserRepository;
-import jakarta.transaction.Transactional;
 
 /**
  * Custom implementation of Spring Security's UserDetailsService
  * This class bridges our User entity with Spring Security's user representation
  * It loads user-specific data and convert it to Spring Security's UserDetails format
+ * It also stores re-hashed passwords when the BCrypt strength has been raised
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     /**
      * Repository to access user date from database
      */
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     /**
      * Loads a user by username from the database and converts it to UserDetails
      * This method is used by Spring Security during authentication
@@ -33,7 +38,9 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @throws UserNameNotFoundException if user not found
      */
     @Override
-    @Transactional  // Ensures database transaction handling
+    // Not read-only, so never served by a replica: one may not have a user who just
+    // registered, or the password a user just changed
+    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // Find user in database using repository
         User user = userRepository.findByUsername(username)
@@ -41,16 +48,39 @@ public class CustomUserDetailsService implements UserDetailsService {
                 new UsernameNotFoundException("User not found with username: " + username));
 
         // Convert our custom User object to Spring Security's UserDetails
-        return org.springframework.security.core.userdetails.User
-            .withUsername(user.getUsername()) // Set username
-            .password(user.getPassword())    // Set password (ahould be encoded)
-            .authorities(Collections.singletonList( // Set role as authority
-                        new SimpleGrantedAuthority(user.getRole().name())))
-            .accountExpired(false) // Account is not expired
-            .accountLocked(false)   // Account is not locked
-            .credentialsExpired(false) // Credentials are not expired
-            .disabled(false) // Account is enabled
-            .build();
+        // Account is enabled, not expired and not locked; the id and token version
+        // travel along so they can be written into the JWT
+        return toPrincipal(user);
+    }
+
+    /**
+     * Saves a password re-hashed with the current encoder settings
+     * Called by Spring Security after a successful login with an outdated hash
+     *
+     * @param userDetails The authenticated user
+     * @param newPassword The new encoded password
+     * @return The user details carrying the new password
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+            .orElseThrow(() ->
+                new UsernameNotFoundException("User not found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userDetailsCache.evict(user.getUsername());
+        return toPrincipal(user);
+    }
+
+    private static UserPrincipal toPrincipal(User user) {
+        return new UserPrincipal(
+            user.getId(),
+            user.getTokenVersion(),
+            user.getUsername(), // Set username
+            user.getPassword(), // Set password (ahould be encoded)
+            Collections.singletonList( // Set role as authority
+                        new SimpleGrantedAuthority(user.getRole().name())));
     }
 
 
@@ -4,6 +4,7 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,6 +12,10 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -33,11 +38,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     // Change from field injection to onstructor injection
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationList revocationList;
+
+    // When enabled, the principal is built from the token claims with no database access
+    @Value("${app.jwtStatelessPrincipal:false}")
+    private boolean statelessPrincipal;
+
+    // Time spent in each phase of authenticating a request, and rejected tokens by reason
+    private final Timer parseTimer;
+    private final Timer userLoadTimer;
+    private final Counter expiredTokens;
+    private final Counter invalidTokens;
+    private final Counter revokedTokens;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService){
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService,
+                                   UserDetailsCache userDetailsCache, TokenRevocationList revocationList,
+                                   MeterRegistry meterRegistry){
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.revocationList = revocationList;
+        this.parseTimer = phaseTimer(meterRegistry, "parse");
+        this.userLoadTimer = phaseTimer(meterRegistry, "user_load");
+        this.expiredTokens = rejectionCounter(meterRegistry, "expired");
+        this.invalidTokens = rejectionCounter(meterRegistry, "invalid");
+        this.revokedTokens = rejectionCounter(meterRegistry, "revoked");
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("auth.filter.phase")
+                .description("Time spent authenticating a request, per phase")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.filter.rejections")
+                .description("Requests rejected by the JWT filter")
+                .tag("reason", reason)
+                .register(meterRegistry);
     }
 
 
@@ -84,16 +126,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (StringUtils.hasLength(jwt)) {
             try {
-                if (tokenProvider.validateToken(jwt)) {
-                    String username = tokenProvider.getUsernameFromJWT(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null,
-                            userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Validates the token and extracts its claims in one parse
+                Claims claims = parseTimer.record(() -> tokenProvider.parseClaims(jwt));
+                UserPrincipal claimed = tokenProvider.getPrincipalFromClaims(claims);
+                UserDetails userDetails;
+                if (statelessPrincipal && claimed != null) {
+                    if (revocationList.isRevoked(claimed.getId(), claimed.getTokenVersion())) {
+                        rejectRevoked(response, claimed.getUsername());
+                        return;
+                    }
+                    userDetails = claimed;
+                } else {
+                    // Load user details, from the database only on a cache miss
+                    userDetails = userLoadTimer.record(() ->
+                        userDetailsCache.get(claims.getSubject(), userDetailsService::loadUserByUsername));
+                    // the user's version moved past the token's on a logout or role change
+                    if (claimed != null && userDetails instanceof UserPrincipal loaded
+                            && claimed.getTokenVersion() < loaded.getTokenVersion()) {
+                        rejectRevoked(response, claimed.getUsername());
+                        return;
+                    }
                 }
+                UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(userDetails, null,
+                        userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             } catch (ExpiredJwtException e) {
+                expiredTokens.increment();
                 logger.error("Expired JWT token: {}", e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
@@ -102,6 +162,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 response.getWriter().flush();
                 return;
             } catch (SecurityException | MalformedJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+                invalidTokens.increment();
                 logger.error("Invalid JWT token: {}", e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
@@ -123,6 +184,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return;
     }
 }
+
+    private void rejectRevoked(HttpServletResponse response, String username) throws IOException {
+        revokedTokens.increment();
+        logger.error("Revoked JWT token for user: {}", username);
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\": \"Token has been revoked\"}");
+        response.getWriter().flush();
+    }
+
     /**
      * Extracts JWT token from the request header
      * Expects format: "Bearer <token>"
@@ -1,16 +1,26 @@
 package com.example.taskManagement.security;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 import io.jsonwebtoken.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 /**
  * This class handles JWT token generation, validation, and user extraction
@@ -21,6 +31,11 @@ public class JwtTokenProvider {
     // Logger for error and info messages
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    // Claims that let the filter build the principal without a database lookup
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
      
     // Secret key from application.properties used to sign the JWT
     @Value("${app.jwtSecret}")
@@ -30,6 +45,35 @@ public class JwtTokenProvider {
     @Value("${app.jwtExpirationInMs}")
     private int jwtExpirationInMs;
 
+    // Whether tokens that already passed signature verification are remembered until they expire
+    @Value("${app.jwtVerifiedCacheEnabled:false}")
+    private boolean verifiedCacheEnabled;
+
+    @Value("${app.jwtVerifiedCacheMaxSize:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Built once from the secret, both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Claims of verified tokens keyed by the SHA-256 digest of the token, null when disabled
+    private Cache<ByteBuffer, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = getSigningKey();
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        if (verifiedCacheEnabled) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxSize)
+                    .expireAfter(new ExpireAtTokenExpiry())
+                    .recordStats()
+                    .build();
+        }
+    }
+
     /**
      * Cretes a secure signing key from the JWT secret
      * This method converts the string secret into a cryptographically secure key
@@ -52,13 +96,38 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
         
         // Build the JWT token
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername()) // User indentifier
                 .setIssuedAt(new Date())                 // Token creation time
-                .setExpiration(expiryDate)               // Token expiry time
-                .signWith(getSigningKey())          // Sign tken with secure key
+                .setExpiration(expiryDate);              // Token expiry time
+
+        // Carry id, role and token version so the token can be trusted on its own
+        if (userPrincipal instanceof UserPrincipal principal) {
+            builder.claim(USER_ID_CLAIM, principal.getId())
+                   .claim(ROLE_CLAIM, principal.getAuthorities().iterator().next().getAuthority())
+                   .claim(TOKEN_VERSION_CLAIM, principal.getTokenVersion());
+        }
+
+        return builder
+                .signWith(signingKey)               // Sign tken with secure key
                 .compact();
     }
+
+    /**
+     * Rebuilds the principal from verified claims, without touching the database
+     * @param claims Claims returned by parseClaims
+     * @return The principal, or null if the token predates these claims
+     */
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        if (userId == null || role == null || tokenVersion == null)
+            return null;
+
+        return new UserPrincipal(userId.longValue(), tokenVersion.longValue(), claims.getSubject(), "",
+                Collections.singletonList(new SimpleGrantedAuthority(role)));
+    }
     
     /**
      * Extracts username from JWT token
@@ -66,14 +135,7 @@ public class JwtTokenProvider {
      * @return Username stored in the token
      */
     public String getUsernameFromJWT(String token) {
-        // Parse the token and extract claims
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();     // Return username from token
+        return parseClaims(token).getSubject();     // Return username from token
     }
     
     /**
@@ -82,12 +144,43 @@ public class JwtTokenProvider {
      * @return true if token is valid, false otherwise
      */
     public boolean validateToken(String authToken) {
+        parseClaims(authToken);
+        return true;
+    }
+
+    /**
+     * Validates a JWT token and returns its claims in a single parse
+     * Tokens already verified are served from the cache until they expire
+     * @param authToken The token to validate
+     * @return The verified claims
+     */
+    public Claims parseClaims(String authToken) {
+        if (verifiedTokens == null)
+            return verify(authToken);
+
+        ByteBuffer key = digest(authToken);
+        Claims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null)
+            return cached;
+
+        Claims claims = verify(authToken);
+        if (claims.getExpiration() != null)
+            verifiedTokens.put(key, claims);
+        return claims;
+    }
+
+    /**
+     * The verified token cache, exposed for its hit/miss statistics
+     * @return The cache, or null when it is disabled
+     */
+    public Cache<ByteBuffer, Claims> getVerifiedTokenCache() {
+        return verifiedTokens;
+    }
+
+    private Claims verify(String authToken) {
         try {
             // Attempt to parse and validate the token
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build().parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (ExpiredJwtException ex) {
             logger.error("JWT token expired: {}", ex.getMessage());
             throw new ExpiredJwtException(ex.getHeader(), ex.getClaims(), "Token has expired");
@@ -106,4 +199,35 @@ public class JwtTokenProvider {
         }
     }
 
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Evicts a cached token at the moment the token itself expires
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
 }
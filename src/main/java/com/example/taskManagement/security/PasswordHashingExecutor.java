@@ -0,0 +1,70 @@
+package com.example.taskManagement.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Small, bounded pool that runs every BCrypt hash and check
+ * Login and registration bursts queue here instead of occupying the request
+ * threads, so task requests keep being served; once the queue is full new
+ * work is refused right away with PasswordHashingBusyException
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(@Value("${app.passwordHashThreads:0}") int threads,
+                                   @Value("${app.passwordHashQueueSize:200}") int queueSize,
+                                   @Value("${app.passwordHashRetryAfterSeconds:1}") long retryAfterSeconds) {
+        // BCrypt is pure CPU work: half the cores by default, so a login burst
+        // leaves the other half to the request threads
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Runs the work on the hashing pool
+     *
+     * @throws PasswordHashingBusyException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException ex) {
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Number of hashes waiting for a thread
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.taskManagement.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles /api requests with one token bucket per client, answering 429 with Retry-After
+ * Runs after JwtAuthenticationFilter: requests with a valid token are counted against their
+ * username, /api/auth/** and requests without a token against the client IP, with lower limits
+ * Listings, searches and batch requests take more tokens than single-task requests
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIST_PATHS = Set.of("/api/tasks", "/api/tasks/recent",
+            "/api/tasks/changes", "/api/tasks/search", "/api/users");
+
+    private final boolean enabled;
+    private final long userCapacity;
+    private final double userTokensPerSecond;
+    private final long ipCapacity;
+    private final double ipTokensPerSecond;
+    private final int listCost;
+
+    // Buckets idle long enough to be full again are dropped, nothing is lost by recreating them
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Counter userRejections;
+    private final Counter ipRejections;
+
+    public RateLimitFilter(@Value("${app.rateLimitEnabled:true}") boolean enabled,
+                           @Value("${app.rateLimitUserCapacity:200}") long userCapacity,
+                           @Value("${app.rateLimitUserTokensPerSecond:100}") double userTokensPerSecond,
+                           @Value("${app.rateLimitIpCapacity:20}") long ipCapacity,
+                           @Value("${app.rateLimitIpTokensPerSecond:5}") double ipTokensPerSecond,
+                           @Value("${app.rateLimitListCost:10}") int listCost,
+                           @Value("${app.rateLimitMaxClients:100000}") long maxClients,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.userCapacity = userCapacity;
+        this.userTokensPerSecond = userTokensPerSecond;
+        this.ipCapacity = ipCapacity;
+        this.ipTokensPerSecond = ipTokensPerSecond;
+        this.listCost = listCost;
+        double refillSeconds = Math.max(userCapacity / userTokensPerSecond, ipCapacity / ipTokensPerSecond);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMillis((long) Math.ceil(refillSeconds * 1000)))
+                .build();
+        this.userRejections = rejectionCounter(meterRegistry, "user");
+        this.ipRejections = rejectionCounter(meterRegistry, "ip");
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("ratelimit.rejections")
+                .description("Requests rejected with 429 by the rate limiter")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = path(request);
+        String username = path.startsWith("/api/auth/") ? null : authenticatedUsername();
+        long now = System.nanoTime();
+        long wait;
+        if (username != null) {
+            TokenBucket bucket = buckets.get("user:" + username,
+                    key -> new TokenBucket(userCapacity, userTokensPerSecond, now));
+            wait = bucket.tryConsume(cost(request.getMethod(), path), now);
+            if (wait > 0)
+                userRejections.increment();
+        } else {
+            // behind a proxy, set server.forward-headers-strategy so this is the client, not the proxy
+            TokenBucket bucket = buckets.get("ip:" + request.getRemoteAddr(),
+                    key -> new TokenBucket(ipCapacity, ipTokensPerSecond, now));
+            wait = bucket.tryConsume(1, now);
+            if (wait > 0)
+                ipRejections.increment();
+        }
+
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999));
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\": \"Too many requests\"}");
+            response.getWriter().flush();
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Tokens a request takes: collection reads and batch writes touch many rows, the rest one
+     */
+    int cost(String method, String path) {
+        if (path.startsWith("/api/tasks/batch") || path.startsWith("/api/tasks/transitions/"))
+            return listCost;
+        if ("GET".equals(method) && (LIST_PATHS.contains(path) || path.startsWith("/api/tasks/status/")))
+            return listCost;
+        return 1;
+    }
+
+    private static String authenticatedUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails user)
+            return user.getUsername();
+        return null;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.taskManagement.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +15,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 /**
  * Configuration class for Spring Security settings.
  * This class defines security rules, authentication, and authorization settings
@@ -27,6 +30,13 @@ public class SecurityConfig {
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    // BCrypt cost factor (log2 of the rounds); raising it re-hashes each password on its next login
+    @Value("${app.bcryptStrength:10}")
+    private int bcryptStrength;
         
     /**
     * Defines the password encoder to be used for encoding user passwords.
@@ -35,7 +45,7 @@ public class SecurityConfig {
     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     /**
@@ -68,6 +78,8 @@ public class SecurityConfig {
            // Set password encoder for secure password comparison
            // during the authentication process
            authProvider.setPasswordEncoder(passwordEncoder());
+           // Hashes weaker than the configured strength are replaced after a successful login
+           authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -97,14 +109,24 @@ public class SecurityConfig {
 
                 // Authorization rules
                 .authorizeHttpRequests(auth -> auth
+                // Streamed and async responses (NDJSON, SSE, login) come back through the chain
+                // once they finish; the request was authorized already and its token is not re-read
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/api-docs/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                // Health checks come without a token; metrics name internals, scrapers send an ADMIN token
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ADMIN")
+                // Authorities are the bare role names, so hasAuthority rather than hasRole
+                .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
                 // All othr endpoints require authentication
                 .anyRequest().authenticated())
                 // Add JWT filter before UserNamePasswordAuthenticationFilter
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Throttle once the caller is known, before any controller or database work
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
                 
 
         return http.build();
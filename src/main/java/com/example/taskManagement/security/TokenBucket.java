@@ -0,0 +1,41 @@
+package com.example.taskManagement.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket held in a single AtomicLong
+ * Instead of a token count it stores the time at which the bucket is full again:
+ * taking tokens moves that time forward by their refill time, and a request fits
+ * as long as it stays within one full bucket of refill time from now
+ * Times are System.nanoTime() values, passed in so callers read the clock once
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, double tokensPerSecond, long now) {
+        this.nanosPerToken = (long) (1_000_000_000 / tokensPerSecond);
+        this.capacityNanos = capacity * nanosPerToken;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes the given number of tokens if the bucket holds them
+     * A cost above the capacity is charged as a full bucket, so it can still pass
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they will be there
+     */
+    public long tryConsume(int tokens, long now) {
+        long cost = Math.min(tokens * nanosPerToken, capacityNanos);
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long wait = next - now - capacityNanos;
+            if (wait > 0)
+                return wait;
+            if (fullAt.compareAndSet(current, next))
+                return 0;
+        }
+    }
+}
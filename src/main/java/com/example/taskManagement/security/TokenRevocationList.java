@@ -0,0 +1,131 @@
+package com.example.taskManagement.security;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.taskManagement.repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Deny-list for tokens validated from their claims alone
+ * For each user it knows the lowest token version still accepted, which is the
+ * version persisted on the user: a logout or role change bumps it, a deleted user
+ * accepts none
+ * Every user's version is loaded at startup, before requests are served, and
+ * reloaded every app.tokenRevocationRefreshMs, so checking a known user never
+ * queries the database. This node applies its own revocations right away; one
+ * made on another node is seen at the next reload
+ * A user missing from the last reload (created since, or deleted before this
+ * node started) is read from the database once
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final Map<Long, Long> minimumVersions = new ConcurrentHashMap<>();
+    private final UserRepository userRepository;
+    private final long refreshMs;
+    private ScheduledExecutorService refresher;
+
+    // only tokens validated from their claims are checked here
+    @Value("${app.jwtStatelessPrincipal:false}")
+    private boolean statelessPrincipal;
+
+    public TokenRevocationList(@Value("${app.tokenRevocationRefreshMs:60000}") long refreshMs,
+                               UserRepository userRepository) {
+        this.refreshMs = refreshMs;
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!statelessPrincipal)
+            return;
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException ex) {
+                // the versions loaded so far stay in use until a reload succeeds
+                logger.warn("Reloading token versions failed: {}", ex.getMessage());
+            }
+        }, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refresher != null)
+            refresher.shutdownNow();
+    }
+
+    /**
+     * Reloads the token version of every user, and revokes the tokens of users
+     * deleted since the previous reload; called by one thread at a time
+     */
+    public void refresh() {
+        // every user known before the query existed in the database by then
+        Set<Long> known = new HashSet<>(minimumVersions.keySet());
+        List<Object[]> rows = userRepository.findAllTokenVersions();
+        Set<Long> ids = new HashSet<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            ids.add(id);
+            // versions only grow, a revocation racing this reload is kept
+            minimumVersions.merge(id, (Long) row[1], Math::max);
+        }
+        // ids are never reused, so a known user missing from the result was deleted;
+        // one first seen during the query may simply be newer than it
+        for (Long id : known) {
+            if (!ids.contains(id))
+                minimumVersions.put(id, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Rejects tokens of this user issued with a version lower than the given one
+     * Called once the new version is committed
+     */
+    public void revokeBefore(Long userId, long tokenVersion) {
+        minimumVersions.merge(userId, tokenVersion, Math::max);
+    }
+
+    /**
+     * Rejects every token of this user, e.g. after the user was deleted
+     */
+    public void revokeAll(Long userId) {
+        minimumVersions.put(userId, Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks a token's version against the user's current one
+     * @return true if the token must no longer be accepted
+     */
+    public boolean isRevoked(Long userId, long tokenVersion) {
+        Long minimum = minimumVersions.get(userId);
+        if (minimum == null) {
+            // not part of the last reload; loaded outside the map, as in UserDetailsCache
+            long persisted = userRepository.findTokenVersion(userId).orElse(Long.MAX_VALUE);
+            minimum = minimumVersions.merge(userId, persisted, Math::max);
+        }
+        return tokenVersion < minimum;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.taskManagement.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded, time-limited cache of UserDetails keyed by username
+ * Sits in front of CustomUserDetailsService so authenticated requests
+ * don't need a database round-trip each time
+ * Entries are evicted by UserService when a user is updated or deleted
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Cache<String, UserDetails> cache;
+
+    // Bumped by evict, per stripe of usernames; a load that saw an eviction while it ran
+    // does not store its result, which may predate the change behind the eviction
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public UserDetailsCache(@Value("${app.userDetailsCacheTtlMs:60000}") long ttlMs,
+                            @Value("${app.userDetailsCacheMaxSize:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached user, loading it on a miss
+     * The loader runs outside the cache: Caffeine computes inside a synchronized
+     * map bin, which would pin a virtual thread for the whole database query
+     * Exceptions thrown by the loader (e.g. user not found) are not cached, and neither
+     * is a user evicted while it was loading, so updates and deletes apply immediately
+     *
+     * @param username The username to look up
+     * @param loader Loads the user when it is not cached
+     * @return The user details
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        UserDetails cached = cache.getIfPresent(username);
+        if (cached != null)
+            return cached;
+        int stripe = stripe(username);
+        long generation = generations.get(stripe);
+        UserDetails loaded = loader.apply(username);
+        // checked and stored atomically: evict bumps the generation before it invalidates,
+        // so either this sees the new generation or the invalidation removes the entry
+        cache.asMap().compute(username, (key, current) ->
+                generations.get(stripe) == generation ? loaded : current);
+        return loaded;
+    }
+
+    /**
+     * Removes a user so the next request reloads it from the database
+     */
+    public void evict(String username) {
+        if (username == null)
+            return;
+        generations.incrementAndGet(stripe(username));
+        cache.invalidate(username);
+    }
+
+    private static int stripe(String username) {
+        int hash = username.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * Hit/miss counters since startup
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * The underlying cache, for metrics
+     */
+    public Cache<String, UserDetails> getCache() {
+        return cache;
+    }
+
+    /**
+     * Number of users currently cached
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.taskManagement.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Spring Security user that also carries our user id and token version
+ * The extra fields let JwtTokenProvider put them into the token, and let
+ * JwtAuthenticationFilter rebuild the principal from the token alone
+ */
+public class UserPrincipal extends User {
+
+    private final Long id;
+    private final long tokenVersion;
+
+    public UserPrincipal(Long id, long tokenVersion, String username, String password,
+                         Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+}
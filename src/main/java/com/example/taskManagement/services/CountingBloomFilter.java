@@ -0,0 +1,104 @@
+package com.example.taskManagement.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bloom filter over strings that also supports removal
+ * Every slot is a small counter instead of a bit, so removing a value only
+ * clears the slots no other value still uses
+ * mightContain never returns a false negative for a value that was added and
+ * not removed; false positives happen at roughly the configured rate while the
+ * number of values stays below the expected count
+ */
+class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 255;
+
+    private final byte[] counters;
+    private final int hashCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param expectedValues Number of values the filter is sized for
+     * @param falsePositiveRate Wanted false positive rate at that size, e.g. 0.01
+     */
+    CountingBloomFilter(int expectedValues, double falsePositiveRate) {
+        int n = Math.max(1, expectedValues);
+        long slots = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, slots))];
+        this.hashCount = Math.max(1, (int) Math.round((double) counters.length / n * Math.log(2)));
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < hashCount; i++) {
+                int slot = slot(hash, i);
+                // a saturated counter stays saturated, it can no longer be decremented safely
+                if ((counters[slot] & 0xFF) < MAX_COUNT)
+                    counters[slot]++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a value; must only be called for values that were added
+     */
+    void remove(String value) {
+        long hash = hash(value);
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < hashCount; i++) {
+                int slot = slot(hash, i);
+                int count = counters[slot] & 0xFF;
+                if (count > 0 && count < MAX_COUNT)
+                    counters[slot]--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * false means the value was definitely never added (or was removed)
+     */
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < hashCount; i++) {
+                if (counters[slot(hash, i)] == 0)
+                    return false;
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // double hashing: the i-th slot is h1 + i * h2, both halves of one 64-bit hash
+    private int slot(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % counters.length;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskManagement.services;
+
+/**
+ * Registration or update hit the unique constraint on username or email
+ */
+public class DuplicateUserException extends RuntimeException {
+
+    public DuplicateUserException(String message) {
+        super(message);
+    }
+}
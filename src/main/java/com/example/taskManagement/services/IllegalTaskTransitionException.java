@@ -0,0 +1,17 @@
+package com.example.taskManagement.services;
+
+import com.example.taskManagement.models.TaskStatus;
+
+/**
+ * The task's current status does not allow moving to the requested one
+ */
+public class IllegalTaskTransitionException extends RuntimeException {
+
+    public IllegalTaskTransitionException(Long id, TaskStatus target) {
+        super("Task " + id + " cannot move to " + target + " from its current status");
+    }
+
+    public IllegalTaskTransitionException(Long id, TaskStatus target, TaskStatus current) {
+        super("Task " + id + " cannot move to " + target + " from " + current);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.taskManagement.services;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.taskManagement.events.TaskChangeEvent;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.repositories.TaskRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+
+/**
+ * Keeps the second-level cache in line with the JDBC writes Hibernate does not see
+ * Entity saves and deletes maintain the cache themselves; partial changes
+ * (patches and status transitions) are plain UPDATE statements, so the task is
+ * evicted along with the cached status queries twice: before the UPDATE, so the
+ * writing transaction reads its own change, and once the transaction ended, which
+ * drops whatever a concurrent reader put back from the row as it was before
+ */
+@Component
+public class TaskCacheInvalidator {
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Called by the service right before a JDBC write to the tasks
+     */
+    public void evict(Collection<Long> taskIds) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        taskIds.forEach(id -> cache.evictEntityData(Task.class, id));
+        cache.evictQueryRegion(TaskRepository.QUERY_CACHE_REGION);
+    }
+
+    // after rollbacks too: a read in the writing transaction may have cached the uncommitted row
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        if (event.isPartial())
+            evict(List.of(event.getTaskId()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.taskManagement.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination over tasks.
+ * The token only carries the position of the last task a client has seen
+ * (its id, plus its timestamp for time ordered listings), encoded so callers
+ * don't start depending on its format.
+ */
+final class TaskCursor {
+
+    private TaskCursor() {
+    }
+
+    /**
+     * Encodes the id of the last task on a page into a continuation token
+     */
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token back into the id to continue after
+     *
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode(long)}
+     */
+    static long decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(decoded);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor " + cursor);
+        }
+    }
+
+    /**
+     * Encodes the timestamp and id of the last task on a time ordered page
+     */
+    static String encode(LocalDateTime lastTime, long lastId) {
+        // the database keeps microseconds, the cursor must compare equal to the stored value
+        String position = lastTime.truncatedTo(ChronoUnit.MICROS) + "," + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode(LocalDateTime, long)}
+     *
+     * @throws IllegalArgumentException if the token is not a time ordered position
+     */
+    static Position decodePosition(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = decoded.indexOf(',');
+            if (comma < 0)
+                throw new IllegalArgumentException("Invalid cursor " + cursor);
+            return new Position(LocalDateTime.parse(decoded.substring(0, comma)),
+                    Long.parseLong(decoded.substring(comma + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor " + cursor);
+        }
+    }
+
+    /**
+     * Position of a task in a (timestamp, id) ordering
+     */
+    record Position(LocalDateTime time, long id) {
+    }
+}
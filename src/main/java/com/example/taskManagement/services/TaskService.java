@@ -1,29 +1,76 @@
 package com.example.taskManagement.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import com.example.taskManagement.dto.BatchItemResult;
+import com.example.taskManagement.dto.TaskField;
+import com.example.taskManagement.dto.TaskListVersion;
+import com.example.taskManagement.dto.TaskPage;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.dto.TaskStats;
+import com.example.taskManagement.dto.TaskTransition;
+import com.example.taskManagement.dto.TaskView;
 import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
 
+// Listings take the owner whose tasks they return; a null owner means every task (admin view).
+// They select only the given fields of each task (see TaskField), never whole entities.
+// Single-task and batch operations take the same owner scope: a task of another owner is not found
 public interface TaskService {
 
-    Task createTask(Task task);
+    Task createTask(Task task, Long ownerId);
 
-    Optional<Task> getTaskById(Long id);
+    Optional<Task> getTaskById(Long id, Long ownerId);
 
-    List<Task> getAllTasks();
+    List<Task> getAllTasks(Long ownerId);
 
-    Task updateTask(Long id, Task task);
+    TaskPage getTasksPage(Long ownerId, String cursor, int limit, Set<TaskField> fields);
 
-    void deleteTask(Long id); // we can have Task as return type, it will return the deleted task
+    TaskPage getTasksCreatedBetween(Long ownerId, LocalDateTime since, LocalDateTime until, String cursor, int limit,
+                                    Set<TaskField> fields);
+
+    TaskPage getRecentTasksPage(Long ownerId, int days, String cursor, int limit, Set<TaskField> fields);  // newest first
+
+    TaskPage getTasksChangedSince(Long ownerId, LocalDateTime since, String cursor, int limit,
+                                  Set<TaskField> fields);  // delta sync on updatedAt
+
+    void forEachTask(Long ownerId, Consumer<Task> action);  // streams every task, memory stays flat
+
+    Task updateTask(Long id, Task task, Long ownerId);
+
+    Long patchTask(Long id, TaskPatchRequest patch, Long expectedVersion, Long ownerId);  // single UPDATE, returns the new version if known
+
+    void deleteTask(Long id, Long ownerId); // we can have Task as return type, it will return the deleted task
+
+    // Batch operations, run in chunked transactions with one result per item
+    List<BatchItemResult> createTasks(List<Task> tasks, Long ownerId);
+
+    List<BatchItemResult> updateTasks(List<Task> tasks, Long ownerId);
+
+    List<BatchItemResult> deleteTasks(List<Long> ids, Long ownerId);
 
     // Business-specific operations
-    List<Task> getTasksByStatus(String Status);
+    List<TaskView> getTasksByStatus(Long ownerId, String Status, Set<TaskField> fields);
+
+    TaskStats getTaskStats(Long ownerId);  // per-status counts, served from memory
+
+    TaskListVersion getTaskListVersion();  // validator for conditional list requests
+
+    Task markTaskAsComplete(Long id, Long ownerId);  // idempotent: a completed task is returned as is
+
+    // Compare-and-set status changes, no prior read of the current status
+    TaskTransition transitionTask(Long id, TaskStatus target, Long ownerId);
+
+    List<BatchItemResult> transitionTasks(List<Long> ids, TaskStatus target, Long ownerId);
 
-    Task markTaskAsComplete(Long id);  // -> version 2.0
+    List<TaskView> searchTasks(Long ownerId, String keyword, Set<TaskField> fields);
 
-    List<Task> searchTasks(String keyword);
+    List<TaskView> searchTasks(Long ownerId, String keyword, int limit, Set<TaskField> fields);  // ranked, best matches first
 
-    List<Task> getRecentTasks(int days);  // -> version 2.0
+    List<TaskView> getRecentTasks(Long ownerId, int days, Set<TaskField> fields);  // at most one page, newest first
 
 }
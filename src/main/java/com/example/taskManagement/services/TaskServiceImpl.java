@@ -1,106 +1,685 @@
 package com.example.taskManagement.services;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
+import org.hibernate.jpa.SpecHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.taskManagement.dto.BatchItemResult;
+import com.example.taskManagement.dto.TaskField;
+import com.example.taskManagement.dto.TaskListVersion;
+import com.example.taskManagement.dto.TaskPage;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.dto.TaskStats;
+import com.example.taskManagement.dto.TaskTransition;
+import com.example.taskManagement.dto.TaskView;
+import com.example.taskManagement.events.TaskChangeEvent;
 import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+import com.example.taskManagement.models.User;
 import com.example.taskManagement.repositories.TaskRepository;
+import com.example.taskManagement.search.TaskSearchIndex;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    private static final String CONCURRENT_UPDATE = "Task was modified concurrently, reload and retry";
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private TaskStatusCounters statusCounters;
+
+    @Autowired
+    private TaskCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.taskMaxPageSize:1000}")
+    private int maxPageSize;
+
+    @Value("${app.taskSearchLimit:100}")
+    private int defaultSearchLimit;
+
+    @Value("${app.taskBatchMaxSize:10000}")
+    private int batchMaxSize;
+
+    @Value("${app.taskBatchChunkSize:500}")
+    private int batchChunkSize;
+
+    @Value("${app.taskChangesLagMs:10000}")
+    private long changesLagMs;
+
     @Override
-    public Task createTask(Task task) {
+    public Task createTask(Task task, Long ownerId) {
         
         if (task.getTitle() == null || task.getTitle().trim().isEmpty())
             throw new IllegalArgumentException("Task title is required");
 
-        task.setStatus("PENDING");
+        assignOwner(task, ownerId);
+        // an id sent by the client would make save() merge into that row instead of inserting
+        task.setId(0);
+        task.setStatus(TaskStatus.PENDING);
+        task.setVersion(0);
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
         
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangeEvent.created(savedTask));
+        return savedTask;
     }
 
     @Override
-    public Optional<Task> getTaskById(Long id) {
+    @Transactional(readOnly = true)
+    public Optional<Task> getTaskById(Long id, Long ownerId) {
         if (id == null)
             throw new IllegalArgumentException("id cannot be null");
-        return taskRepository.findById(id);
+        return findOwned(id, ownerId);
     }
 
     @Override
-    public List<Task> getAllTasks() {
+    @Transactional(readOnly = true)
+    public List<Task> getAllTasks(Long ownerId) {
     
-        return taskRepository.findAll();
+        return ownerId == null ? taskRepository.findAll() : taskRepository.findByOwnerId(ownerId);
     }
 
     @Override
-    public Task updateTask(Long id, Task taskDetails) {
-        Task existingTask = taskRepository.findById(id).
-                orElseThrow(() -> new RuntimeException("Task not found with id " + id));
-        if(taskDetails.getTitle() != null && !taskDetails.getTitle().trim().isEmpty())
-            existingTask.setTitle(taskDetails.getTitle());
+    @Transactional(readOnly = true)
+    public TaskPage getTasksPage(Long ownerId, String cursor, int limit, Set<TaskField> fields) {
+        validateLimit(limit);
 
-        if(taskDetails.getDescription() != null)
-            existingTask.setDescription(taskDetails.getDescription());
-        
-        if (taskDetails.getStatus() != null) {
-            validateStatus(taskDetails.getStatus());
-            existingTask.setStatus(taskDetails.getStatus());
+        long afterId = cursor == null || cursor.isEmpty() ? 0L : TaskCursor.decode(cursor);
+        // fetch one extra row to know whether another page exists
+        List<TaskView> tasks = taskRepository.findPage(ownerId, afterId, limit + 1, fields);
+        if (tasks.size() <= limit)
+            return new TaskPage(tasks, null);
+
+        List<TaskView> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.encode((Long) page.get(limit - 1).get(TaskField.ID)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getTasksCreatedBetween(Long ownerId, LocalDateTime since, LocalDateTime until, String cursor, int limit,
+                                           Set<TaskField> fields) {
+        validateLimit(limit);
+        if (since != null && until != null && !since.isBefore(until))
+            throw new IllegalArgumentException("since must be before until");
+        return timeRangePage(ownerId, "createdAt", since, until, cursor, false, limit, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getRecentTasksPage(Long ownerId, int days, String cursor, int limit, Set<TaskField> fields) {
+        if (days < 1)
+            throw new IllegalArgumentException("days must be at least 1");
+        validateLimit(limit);
+        return timeRangePage(ownerId, "createdAt", LocalDateTime.now().minusDays(days), null, cursor, true, limit, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getTasksChangedSince(Long ownerId, LocalDateTime since, String cursor, int limit,
+                                         Set<TaskField> fields) {
+        validateLimit(limit);
+        // updatedAt is taken from the clock before the commit: a row is only handed out once every
+        // transaction that could still commit an older timestamp is over, so no cursor passes it
+        LocalDateTime settled = LocalDateTime.now().minusNanos(changesLagMs * 1_000_000);
+        TaskPage page = timeRangePage(ownerId, "updatedAt", since, settled, cursor, false, limit, fields);
+        if (page.getNextCursor() == null)
+            // the last page still hands out a position, so the next sync resumes from there
+            page.setNextCursor(page.getItems().isEmpty()
+                    ? cursor
+                    : lastPosition(page.getItems(), "updatedAt"));
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTask(Long ownerId, Consumer<Task> action) {
+        try (Stream<Task> tasks = ownerId == null
+                ? taskRepository.streamAllByOrderByIdAsc()
+                : taskRepository.streamAllByOwnerIdOrderByIdAsc(ownerId)) {
+            tasks.forEach(task -> {
+                action.accept(task);
+                // drop the entity from the persistence context so it can be collected
+                entityManager.detach(task);
+            });
         }
+    }
 
-        existingTask.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(existingTask);
+    @Override
+    @Transactional
+    public Task updateTask(Long id, Task taskDetails, Long ownerId) {
+        Task existingTask = findOwned(id, ownerId).
+                orElseThrow(() -> new TaskNotFoundException(id));
+        TaskStatus previousStatus = existingTask.getStatus();
+        validateTransition(existingTask, taskDetails.getStatus());
+        applyChanges(existingTask, taskDetails);
+        Task savedTask = taskRepository.save(existingTask);
+        eventPublisher.publishEvent(TaskChangeEvent.updated(savedTask, previousStatus));
+        return savedTask;
  
     }
 
     @Override
-    public void deleteTask(Long id) {
-        if(!taskRepository.existsById(id))
-            throw new RuntimeException("Task not found");
+    @Transactional
+    public Long patchTask(Long id, TaskPatchRequest patch, Long expectedVersion, Long ownerId) {
+        if (patch.getTitle() != null && patch.getTitle().trim().isEmpty())
+            throw new IllegalArgumentException("Task title cannot be empty");
+
+        TaskStatus previousStatus = null;
+        int updated;
+        cacheInvalidator.evict(List.of(id));
+        if (patch.getStatus() == null) {
+            updated = taskRepository.patch(id, patch, expectedVersion, null, ownerId);
+        } else {
+            // compare-and-set against each status allowed to move to the target (or already in it)
+            // instead of reading it first, so the status counters know exactly which one was replaced
+            updated = 0;
+            List<TaskStatus> candidates = new ArrayList<>(patch.getStatus().predecessors());
+            candidates.add(patch.getStatus());
+            for (TaskStatus candidate : candidates) {
+                updated = taskRepository.patch(id, patch, expectedVersion, candidate, ownerId);
+                if (updated > 0) {
+                    previousStatus = candidate;
+                    break;
+                }
+            }
+        }
+
+        if (updated == 0) {
+            // cold path: find out why nothing matched
+            Task current = findOwnedUncached(id, ownerId).orElseThrow(() -> new TaskNotFoundException(id));
+            if (expectedVersion != null && current.getVersion() != expectedVersion)
+                throw new TaskVersionConflictException(id, expectedVersion);
+            if (patch.getStatus() == null)
+                // only the version could have kept it from matching, it changed since the UPDATE
+                throw new ObjectOptimisticLockingFailureException(Task.class, id);
+            throw new IllegalTaskTransitionException(id, patch.getStatus(), current.getStatus());
+        }
+
+        Task changedFields = new Task();
+        changedFields.setId(id);
+        changedFields.setTitle(patch.getTitle());
+        changedFields.setDescription(patch.getDescription());
+        changedFields.setStatus(patch.getStatus());
+        eventPublisher.publishEvent(TaskChangeEvent.patched(changedFields, ownersOf(List.of(id), ownerId).get(id),
+                previousStatus));
+        return expectedVersion != null ? expectedVersion + 1 : null;
+    }
+
+    @Override
+    public List<BatchItemResult> createTasks(List<Task> tasks, Long ownerId) {
+        validateBatchSize(tasks);
+        List<BatchItemResult> results = new ArrayList<>(tasks.size());
+        forEachChunk(tasks, (offset, chunk) -> {
+            List<Integer> indexes = new ArrayList<>();
+            List<Task> valid = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < chunk.size(); i++) {
+                Task task = chunk.get(i);
+                if (task == null || task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+                    results.add(BatchItemResult.failed(offset + i, null, 400, "Task title is required"));
+                    continue;
+                }
+                task.setId(0);
+                task.setVersion(0);
+                task.setStatus(TaskStatus.PENDING);
+                task.setCreatedAt(now);
+                task.setUpdatedAt(now);
+                indexes.add(offset + i);
+                valid.add(task);
+            }
+            runChunk(indexes, results, () -> {
+                valid.forEach(task -> assignOwner(task, ownerId));
+                // ids come from the pooled sequence, so the inserts go out as JDBC batches
+                taskRepository.saveAll(valid);
+                entityManager.flush();
+                entityManager.clear();
+                valid.forEach(task -> eventPublisher.publishEvent(TaskChangeEvent.created(task)));
+                for (int i = 0; i < valid.size(); i++)
+                    results.add(BatchItemResult.ok(indexes.get(i), valid.get(i).getId()));
+            });
+        });
+        results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        return results;
+    }
+
+    @Override
+    public List<BatchItemResult> updateTasks(List<Task> tasks, Long ownerId) {
+        validateBatchSize(tasks);
+        List<BatchItemResult> results = new ArrayList<>(tasks.size());
+        forEachChunk(tasks, (offset, chunk) -> {
+            List<Integer> indexes = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Task task = chunk.get(i);
+                if (task == null || task.getId() == 0) {
+                    results.add(BatchItemResult.failed(offset + i, null, 400, "Task id is required"));
+                    continue;
+                }
+                indexes.add(offset + i);
+                ids.add(task.getId());
+            }
+            Set<Long> conflicts = new HashSet<>();
+            Map<Long, Long> readVersions = new HashMap<>();
+            runChunk(indexes, results, () -> addStaleTasks(readVersions, conflicts), () -> {
+                // one SELECT for the whole chunk, the UPDATEs are flushed as JDBC batches
+                Map<Long, Task> existingById = taskRepository.findAllById(ids).stream()
+                        .filter(task -> isOwnedBy(task, ownerId) && !conflicts.contains(task.getId()))
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+                readVersions.clear();
+                existingById.values().forEach(task -> readVersions.put(task.getId(), task.getVersion()));
+                List<BatchItemResult> chunkResults = new ArrayList<>(ids.size());
+                Map<Long, TaskStatus> previousStatuses = new LinkedHashMap<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    if (conflicts.contains(ids.get(i))) {
+                        chunkResults.add(BatchItemResult.failed(indexes.get(i), ids.get(i), 409, CONCURRENT_UPDATE));
+                        continue;
+                    }
+                    Task existingTask = existingById.get(ids.get(i));
+                    if (existingTask == null) {
+                        chunkResults.add(BatchItemResult.failed(indexes.get(i), ids.get(i), 404, "Task not found"));
+                        continue;
+                    }
+                    Task taskDetails = chunk.get(indexes.get(i) - offset);
+                    if (!isAllowedTransition(existingTask, taskDetails.getStatus())) {
+                        chunkResults.add(BatchItemResult.failed(indexes.get(i), ids.get(i), 409,
+                                "Task cannot move to " + taskDetails.getStatus() + " from " + existingTask.getStatus()));
+                        continue;
+                    }
+                    previousStatuses.putIfAbsent(existingTask.getId(), existingTask.getStatus());
+                    applyChanges(existingTask, taskDetails);
+                    chunkResults.add(BatchItemResult.ok(indexes.get(i), ids.get(i)));
+                }
+                // through the repository, so a stale version surfaces as ObjectOptimisticLockingFailureException
+                taskRepository.flush();
+                entityManager.clear();
+                previousStatuses.forEach((id, previousStatus) ->
+                        eventPublisher.publishEvent(TaskChangeEvent.updated(existingById.get(id), previousStatus)));
+                results.addAll(chunkResults);
+            });
+        });
+        results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        return results;
+    }
+
+    @Override
+    public List<BatchItemResult> deleteTasks(List<Long> ids, Long ownerId) {
+        validateBatchSize(ids);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        forEachChunk(ids, (offset, chunk) -> {
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.get(i) == null)
+                    results.add(BatchItemResult.failed(offset + i, null, 400, "Task id is required"));
+                else
+                    indexes.add(offset + i);
+            }
+            runChunk(indexes, results, () -> {
+                List<Long> chunkIds = indexes.stream().map(ids::get).toList();
+                // locked: a transition committing between this read and the delete would
+                // otherwise leave the change events reporting the status read here
+                Map<Long, Task> existingById = taskRepository.findAllForUpdate(chunkIds, ownerId).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+                // a single DELETE ... WHERE id IN (...) for the whole chunk
+                taskRepository.deleteAllByIdInBatch(existingById.keySet());
+                entityManager.clear();
+                existingById.values().forEach(task ->
+                        eventPublisher.publishEvent(TaskChangeEvent.deleted(task.getId(), task.getOwnerId(), task.getStatus())));
+                for (int index : indexes) {
+                    Long id = ids.get(index);
+                    results.add(existingById.containsKey(id)
+                            ? BatchItemResult.ok(index, id)
+                            : BatchItemResult.failed(index, id, 404, "Task not found"));
+                }
+            });
+        });
+        results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public void deleteTask(Long id, Long ownerId) {
+        Task existingTask = findOwned(id, ownerId)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+
+        taskRepository.delete(existingTask);
+        eventPublisher.publishEvent(TaskChangeEvent.deleted(id, existingTask.getOwnerId(), existingTask.getStatus()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskView> getTasksByStatus(Long ownerId, String status, Set<TaskField> fields) {
+        return taskRepository.findByStatus(ownerId, TaskStatus.fromName(status), fields);
+    }
+
+    @Override
+    public TaskStats getTaskStats(Long ownerId) {
+        return ownerId == null ? statusCounters.snapshot() : statusCounters.snapshot(ownerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskListVersion getTaskListVersion() {
+        // count from the in-memory counters, max(updated_at) is a single index lookup
+        return new TaskListVersion(statusCounters.snapshot().getTotal(), taskRepository.findLastUpdatedAt());
+    }
+
+    // transitionTask is called on this, not through the proxy: the transaction has to start here,
+    // so the UPDATE and the read after it share one primary connection
+    @Override
+    @Transactional
+    public Task markTaskAsComplete(Long id, Long ownerId) {
+        IllegalTaskTransitionException refused = null;
+        try {
+            transitionTask(id, TaskStatus.COMPLETED, ownerId);
+        } catch (IllegalTaskTransitionException ex) {
+            // completing a completed task is a no-op, a retried request gets the task back
+            refused = ex;
+        }
+        Task task = findOwnedUncached(id, ownerId).orElseThrow(() -> new TaskNotFoundException(id));
+        if (refused != null && task.getStatus() != TaskStatus.COMPLETED)
+            throw refused;
+        return task;
+    }
 
-        taskRepository.deleteById(id);
+    @Override
+    @Transactional
+    public TaskTransition transitionTask(Long id, TaskStatus target, Long ownerId) {
+        TaskPatchRequest statusOnly = new TaskPatchRequest();
+        statusOnly.setStatus(target);
+        cacheInvalidator.evict(List.of(id));
+        // one conditional UPDATE per allowed predecessor, usually the first one matches
+        for (TaskStatus from : target.predecessors()) {
+            if (taskRepository.patch(id, statusOnly, null, from, ownerId) > 0) {
+                eventPublisher.publishEvent(TaskChangeEvent.patched(statusChange(id, target),
+                        ownersOf(List.of(id), ownerId).get(id), from));
+                return new TaskTransition(id, from, target);
+            }
+        }
+        if (findOwned(id, ownerId).isEmpty())
+            throw new TaskNotFoundException(id);
+        throw new IllegalTaskTransitionException(id, target);
     }
 
     @Override
-    public List<Task> getTasksByStatus(String status) {
-        validateStatus(status);
-        return taskRepository.findByStatus(status);
+    public List<BatchItemResult> transitionTasks(List<Long> ids, TaskStatus target, Long ownerId) {
+        validateBatchSize(ids);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        forEachChunk(ids, (offset, chunk) -> {
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.get(i) == null)
+                    results.add(BatchItemResult.failed(offset + i, null, 400, "Task id is required"));
+                else
+                    indexes.add(offset + i);
+            }
+            runChunk(indexes, results, () -> {
+                List<Integer> pending = new ArrayList<>(indexes);
+                List<Long> chunkIds = indexes.stream().map(ids::get).toList();
+                Map<Long, Long> owners = ownersOf(chunkIds, ownerId);
+                cacheInvalidator.evict(chunkIds);
+                for (TaskStatus from : target.predecessors()) {
+                    if (pending.isEmpty())
+                        break;
+                    // one JDBC batch per predecessor, the update counts tell which tasks moved
+                    int[] counts = taskRepository.transitionAll(pending.stream().map(ids::get).toList(), from, target,
+                            ownerId);
+                    List<Integer> stillPending = new ArrayList<>();
+                    for (int i = 0; i < counts.length; i++) {
+                        int index = pending.get(i);
+                        if (counts[i] > 0) {
+                            eventPublisher.publishEvent(TaskChangeEvent.patched(statusChange(ids.get(index), target),
+                                    owners.get(ids.get(index)), from));
+                            results.add(BatchItemResult.ok(index, ids.get(index)));
+                        } else {
+                            stillPending.add(index);
+                        }
+                    }
+                    pending = stillPending;
+                }
+                if (!pending.isEmpty()) {
+                    List<Long> existingIds = taskRepository.findExistingIds(pending.stream().map(ids::get).toList(),
+                            ownerId);
+                    for (int index : pending) {
+                        Long id = ids.get(index);
+                        results.add(existingIds.contains(id)
+                                ? BatchItemResult.failed(index, id, 409, "Task cannot move to " + target + " from its current status")
+                                : BatchItemResult.failed(index, id, 404, "Task not found"));
+                    }
+                }
+            });
+        });
+        results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        return results;
     }
 
     @Override
-    public Task markTaskAsComplete(Long id) {
-        // TODO Auto-generated method stub   -> version 2.0
-        throw new UnsupportedOperationException("Unimplemented method 'markTaskAsComplete'");
+    @Transactional(readOnly = true)
+    public List<TaskView> searchTasks(Long ownerId, String keyword, Set<TaskField> fields) {
+       return searchTasks(ownerId, keyword, defaultSearchLimit, fields);
     }
 
     @Override
-    public List<Task> searchTasks(String keyword) {
+    @Transactional(readOnly = true)
+    public List<TaskView> searchTasks(Long ownerId, String keyword, int limit, Set<TaskField> fields) {
        if(keyword == null || keyword.trim().isEmpty())
            throw new IllegalArgumentException("Search keyword cannot be empty");
-       return taskRepository.findByTitleContainingIgnoreCase(keyword.trim());
+       if (limit < 1 || limit > maxPageSize)
+           throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+       if (!searchIndex.isEnabled())
+           return taskRepository.findByTitleContaining(ownerId, keyword.trim(), limit, fields);
+
+       // the index ranks the matches, the database only loads the winners by primary key
+       List<Long> rankedIds = searchIndex.search(keyword, ownerId, limit);
+       Map<Long, TaskView> tasksById = taskRepository.findByIds(rankedIds, fields).stream()
+               .collect(Collectors.toMap(task -> (Long) task.get(TaskField.ID), Function.identity()));
+       List<TaskView> tasks = new ArrayList<>(rankedIds.size());
+       for (Long id : rankedIds) {
+           TaskView task = tasksById.get(id);
+           if (task != null)
+               tasks.add(task);
+       }
+       return tasks;
     }
 
-    @Override
-    public List<Task> getRecentTasks(int days) {
-        // TODO Auto-generated method stub   -> version 2.0
-        throw new UnsupportedOperationException("Unimplemented method 'getRecentTasks'");
+    // A task of another owner is reported as not found, so its existence is not revealed either
+    private Optional<Task> findOwned(Long id, Long ownerId) {
+        return taskRepository.findById(id).filter(task -> isOwnedBy(task, ownerId));
     }
 
-    //helper method for validation 
-    private void validateStatus(String status) {
-        List<String> validStatus = List.of("PENDING", "IN_PROGRESS", "COMPLETED");
-        if(!validStatus.contains(status))
-            throw new IllegalArgumentException("Invalid status " + status);
+    // Read from the table: the UPDATE went past Hibernate, a cached copy may be older
+    private Optional<Task> findOwnedUncached(Long id, Long ownerId) {
+        return Optional.ofNullable(entityManager.find(Task.class, id,
+                        Map.of(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS)))
+                .filter(task -> isOwnedBy(task, ownerId));
+    }
+
+    private static boolean isOwnedBy(Task task, Long ownerId) {
+        return ownerId == null || ownerId.equals(task.getOwnerId());
+    }
+
+    // Owners of tasks changed without loading them, for the change feed: the caller when
+    // the write was scoped to their tasks, otherwise (admins) read from the table
+    private Map<Long, Long> ownersOf(List<Long> ids, Long ownerId) {
+        Map<Long, Long> owners = new HashMap<>();
+        if (ownerId != null)
+            ids.forEach(id -> owners.put(id, ownerId));
+        else
+            for (Object[] row : taskRepository.findOwnerIds(ids))
+                owners.put((Long) row[0], (Long) row[1]);
+        return owners;
+    }
+
+    // the owner is set by reference, creating a task never loads its User
+    private void assignOwner(Task task, Long ownerId) {
+        task.setOwner(ownerId == null ? null : entityManager.getReference(User.class, ownerId));
+    }
+
+    private static Task statusChange(long id, TaskStatus status) {
+        Task changedFields = new Task();
+        changedFields.setId(id);
+        changedFields.setStatus(status);
+        return changedFields;
+    }
+
+    private static boolean isAllowedTransition(Task existingTask, TaskStatus target) {
+        return target == null || target == existingTask.getStatus() || existingTask.getStatus().canTransitionTo(target);
+    }
+
+    private static void validateTransition(Task existingTask, TaskStatus target) {
+        if (!isAllowedTransition(existingTask, target))
+            throw new IllegalTaskTransitionException(existingTask.getId(), target);
+    }
+
+    //helper applying the non-null fields of a request to an existing task
+    private void applyChanges(Task existingTask, Task taskDetails) {
+        if(taskDetails.getTitle() != null && !taskDetails.getTitle().trim().isEmpty())
+            existingTask.setTitle(taskDetails.getTitle());
 
+        if(taskDetails.getDescription() != null)
+            existingTask.setDescription(taskDetails.getDescription());
+        
+        if (taskDetails.getStatus() != null)
+            existingTask.setStatus(taskDetails.getStatus());
+
+        existingTask.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > maxPageSize)
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+    }
+
+    private TaskPage timeRangePage(Long ownerId, String timeField, LocalDateTime since, LocalDateTime until,
+                                   String cursor, boolean newestFirst, int limit, Set<TaskField> fields) {
+        TaskCursor.Position after = cursor == null || cursor.isEmpty() ? null : TaskCursor.decodePosition(cursor);
+        // fetch one extra row to know whether another page exists
+        List<TaskView> tasks = taskRepository.findTimeRange(ownerId, timeField, since, until,
+                after != null ? after.time() : null, after != null ? after.id() : 0L, newestFirst, limit + 1, fields);
+        if (tasks.size() <= limit)
+            return new TaskPage(tasks, null);
+
+        List<TaskView> page = tasks.subList(0, limit);
+        return new TaskPage(page, lastPosition(page, timeField));
+    }
+
+    // the time range queries always select the id and the timestamp they page on
+    private static String lastPosition(List<TaskView> page, String timeField) {
+        TaskView last = page.get(page.size() - 1);
+        TaskField time = "updatedAt".equals(timeField) ? TaskField.UPDATED_AT : TaskField.CREATED_AT;
+        return TaskCursor.encode((LocalDateTime) last.get(time), (Long) last.get(TaskField.ID));
+    }
+
+    private void validateBatchSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > batchMaxSize)
+            throw new IllegalArgumentException("A batch must contain between 1 and " + batchMaxSize + " items");
+    }
+
+    private <T> void forEachChunk(List<T> items, ChunkHandler<T> handler) {
+        for (int offset = 0; offset < items.size(); offset += batchChunkSize)
+            handler.handle(offset, items.subList(offset, Math.min(offset + batchChunkSize, items.size())));
+    }
+
+    // Runs one chunk in its own transaction; if it fails, all its items are reported as failed
+    private void runChunk(List<Integer> indexes, List<BatchItemResult> results, Runnable work) {
+        runChunk(indexes, results, null, work);
+    }
+
+    // On an optimistic locking failure, the chunk runs again if onConflict found the tasks that
+    // were modified concurrently (the work then reports them as 409), otherwise every item gets 409
+    private void runChunk(List<Integer> indexes, List<BatchItemResult> results, BooleanSupplier onConflict,
+                          Runnable work) {
+        if (indexes.isEmpty())
+            return;
+        int resultsBefore = results.size();
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> work.run());
+                return;
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                entityManager.clear();
+                results.subList(resultsBefore, results.size()).clear();
+                if (onConflict != null && onConflict.getAsBoolean())
+                    continue;
+                indexes.forEach(index -> results.add(BatchItemResult.failed(index, null, 409, CONCURRENT_UPDATE)));
+                return;
+            } catch (RuntimeException ex) {
+                entityManager.clear();
+                results.subList(resultsBefore, results.size()).clear();
+                String error = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+                indexes.forEach(index -> results.add(BatchItemResult.failed(index, null, 500, error)));
+                return;
+            }
+        }
+    }
+
+    // A failed JDBC batch does not say which row was stale: compare the versions the chunk read
+    // with the current ones. Returns true if new conflicts were found
+    private boolean addStaleTasks(Map<Long, Long> readVersions, Set<Long> conflicts) {
+        Map<Long, Long> current = new HashMap<>();
+        for (Object[] row : taskRepository.findVersions(readVersions.keySet()))
+            current.put((Long) row[0], (Long) row[1]);
+        boolean found = false;
+        for (Map.Entry<Long, Long> read : readVersions.entrySet()) {
+            if (!read.getValue().equals(current.get(read.getKey())) && conflicts.add(read.getKey())) {
+                // the stale copy may come from the second-level cache, a retry has to see the row
+                entityManager.getEntityManagerFactory().getCache().evict(Task.class, read.getKey());
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    @FunctionalInterface
+    private interface ChunkHandler<T> {
+        void handle(int offset, List<T> chunk);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskView> getRecentTasks(Long ownerId, int days, Set<TaskField> fields) {
+        return getRecentTasksPage(ownerId, days, null, maxPageSize, fields).getItems();
     }
 }
@@ -0,0 +1,100 @@
+package com.example.taskManagement.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.taskManagement.dto.TaskStats;
+import com.example.taskManagement.events.TaskChangeEvent;
+import com.example.taskManagement.models.TaskStatus;
+import com.example.taskManagement.repositories.TaskRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Number of tasks per status, overall and per owner, kept in memory
+ * Loaded with GROUP BY queries at startup, then adjusted from every committed
+ * TaskChangeEvent so reading the counts never touches the database
+ */
+@Component
+public class TaskStatusCounters {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final AtomicLongArray counts = new AtomicLongArray(TaskStatus.values().length);
+    private final Map<Long, AtomicLongArray> countsByOwner = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the counts from the database, also used to resync after bulk loads
+     * that bypass the service (and so publish no events)
+     */
+    @PostConstruct
+    public void load() {
+        for (int i = 0; i < counts.length(); i++)
+            counts.set(i, 0);
+        for (Object[] row : taskRepository.countGroupByStatus())
+            counts.set(((TaskStatus) row[0]).ordinal(), (Long) row[1]);
+        countsByOwner.clear();
+        for (Object[] row : taskRepository.countGroupByOwnerAndStatus())
+            ownerCounts((Long) row[0]).set(((TaskStatus) row[1]).ordinal(), (Long) row[2]);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        // the event carries the owner, the task of a partial change does not
+        AtomicLongArray owned = event.getOwnerId() != null ? ownerCounts(event.getOwnerId()) : null;
+        if (event.getPreviousStatus() != null) {
+            counts.decrementAndGet(event.getPreviousStatus().ordinal());
+            if (owned != null)
+                owned.decrementAndGet(event.getPreviousStatus().ordinal());
+        }
+        if (event.getTask() != null && event.getTask().getStatus() != null) {
+            counts.incrementAndGet(event.getTask().getStatus().ordinal());
+            if (owned != null)
+                owned.incrementAndGet(event.getTask().getStatus().ordinal());
+        }
+    }
+
+    /**
+     * Forgets the counts of a deleted user, whose tasks were left without an owner
+     */
+    public void removeOwner(Long ownerId) {
+        countsByOwner.remove(ownerId);
+    }
+
+    /**
+     * Current count per status plus the total
+     */
+    public TaskStats snapshot() {
+        return snapshot(counts);
+    }
+
+    /**
+     * Current count per status plus the total, for the tasks of one owner
+     */
+    public TaskStats snapshot(Long ownerId) {
+        AtomicLongArray owned = countsByOwner.get(ownerId);
+        return snapshot(owned != null ? owned : new AtomicLongArray(TaskStatus.values().length));
+    }
+
+    private AtomicLongArray ownerCounts(Long ownerId) {
+        return countsByOwner.computeIfAbsent(ownerId, id -> new AtomicLongArray(TaskStatus.values().length));
+    }
+
+    private static TaskStats snapshot(AtomicLongArray counts) {
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        long total = 0;
+        for (TaskStatus status : TaskStatus.values()) {
+            long count = counts.get(status.ordinal());
+            byStatus.put(status, count);
+            total += count;
+        }
+        return new TaskStats(byStatus, total);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskManagement.services;
+
+/**
+ * The task exists but no longer has the version the caller expected
+ */
+public class TaskVersionConflictException extends RuntimeException {
+
+    public TaskVersionConflictException(Long id, Long expectedVersion) {
+        super("Task " + id + " is no longer at version " + expectedVersion);
+    }
+}
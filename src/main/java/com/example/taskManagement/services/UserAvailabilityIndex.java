@@ -0,0 +1,67 @@
+package com.example.taskManagement.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.taskManagement.repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory answer to "is this username / email free?"
+ * Counting Bloom filters over every taken username and email: a negative answer
+ * is certain and needs no query, only a possible match is confirmed in the database
+ * Loaded at startup, kept up to date by UserService on register, update and delete
+ */
+@Component
+public class UserAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityIndex.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final CountingBloomFilter usernames;
+    private final CountingBloomFilter emails;
+
+    public UserAvailabilityIndex(@Value("${app.availabilityExpectedUsers:100000}") int expectedUsers,
+                                 @Value("${app.availabilityFalsePositiveRate:0.01}") double falsePositiveRate) {
+        this.usernames = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    @PostConstruct
+    void load() {
+        int count = 0;
+        for (Object[] row : userRepository.findAllUsernamesAndEmails()) {
+            add((String) row[0], (String) row[1]);
+            count++;
+        }
+        logger.info("Loaded {} users into the availability filters", count);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return !usernames.mightContain(username) || !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return !emails.mightContain(email) || !userRepository.existsByEmail(email);
+    }
+
+    void add(String username, String email) {
+        if (username != null)
+            usernames.add(username);
+        if (email != null)
+            emails.add(email);
+    }
+
+    void remove(String username, String email) {
+        if (username != null)
+            usernames.remove(username);
+        if (email != null)
+            emails.remove(email);
+    }
+}
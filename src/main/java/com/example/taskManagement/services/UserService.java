@@ -1,13 +1,24 @@
 package com.example.taskManagement.services;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.taskManagement.dto.UserSummary;
 import com.example.taskManagement.models.User;
+import com.example.taskManagement.repositories.TaskRepository;
 import com.example.taskManagement.repositories.UserRepository;
+import com.example.taskManagement.security.TokenRevocationList;
+import com.example.taskManagement.security.UserDetailsCache;
 
 /**
  * Service class Handling business logic for User operations
@@ -18,9 +29,43 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private TaskStatusCounters statusCounters;
+
+    /**
+     * Register a new user with a single INSERT
+     * The unique constraints decide whether the username or email is taken,
+     * so there is no check-then-insert race and no extra queries
+     *
+     * @throws DuplicateUserException if the username or email is already used
+     */
+    public User registerUser(User user) {
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw toDuplicateUser(ex);
+        }
+        availabilityIndex.add(saved.getUsername(), saved.getEmail());
+        return saved;
+    }
+
     /**
      * Get user by Id
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -28,29 +73,89 @@ public class UserService {
     /**
      * Get user by username
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
     /** 
-     * Get all users
+     * Get all users, as summaries selected without the password hash
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllSummaries();
     }
 
     /**
      * Update user
+     * Evicts the cached user details so role changes apply to the next request
+     * A role change also bumps the token version, revoking tokens that carry the old role
+     * Caches, filters and the revocation list are only touched once the change is committed
+     *
+     * @throws DuplicateUserException if the new username or email is already used
      */
+    @Transactional
     public User updateUser(User user) {
-        return userRepository.save(user);
+        Optional<User> existing = userRepository.findById(user.getId());
+        // the username itself may change, so evict the old one as well
+        Optional<String> previousUsername = existing.map(User::getUsername);
+        Optional<String> previousEmail = existing.map(User::getEmail);
+        long tokenVersion = existing.map(User::getTokenVersion).orElse(0L);
+        boolean roleChanged = existing.isPresent() && existing.get().getRole() != user.getRole();
+        user.setTokenVersion(roleChanged ? tokenVersion + 1 : tokenVersion);
+
+        User saved;
+        try {
+            // flushed here: inside the transaction a plain save only merges, and the unique
+            // constraints would fail at commit, outside this catch
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw toDuplicateUser(ex);
+        }
+        afterCommit(() -> {
+            availabilityIndex.remove(previousUsername.orElse(null), previousEmail.orElse(null));
+            availabilityIndex.add(saved.getUsername(), saved.getEmail());
+            previousUsername.ifPresent(userDetailsCache::evict);
+            userDetailsCache.evict(saved.getUsername());
+            if (roleChanged)
+                revocationList.revokeBefore(saved.getId(), saved.getTokenVersion());
+        });
+        return saved;
+    }
+
+    /**
+     * Revoke every token issued to the user so far, e.g. on logout
+     * Bumps the persisted token version, which stateless validation reads on a cache miss
+     */
+    @Transactional
+    public void revokeTokens(Long id) {
+        userRepository.findById(id).ifPresent(user -> {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            afterCommit(() -> {
+                userDetailsCache.evict(user.getUsername());
+                revocationList.revokeBefore(user.getId(), user.getTokenVersion());
+            });
+        });
     }
 
     /**
      * Delete user
+     * Evicts the cached user details so the deleted user is rejected immediately
+     * Their tasks are kept without an owner
      */
+    @Transactional
     public void deteleUser(Long id) {
+        Optional<User> user = userRepository.findById(id);
+        taskRepository.clearOwner(id);
         userRepository.deleteById(id);
+        afterCommit(() -> {
+            user.ifPresent(deleted -> {
+                userDetailsCache.evict(deleted.getUsername());
+                availabilityIndex.remove(deleted.getUsername(), deleted.getEmail());
+            });
+            revocationList.revokeAll(id);
+            statusCounters.removeOwner(id);
+        });
     }
 
     /**
@@ -66,4 +171,29 @@ public class UserService {
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    // In-memory state follows the database only once the transaction committed, a rollback leaves it as it was
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Maps a violation of uk_users_username / uk_users_email to a message naming the field
+    private static RuntimeException toDuplicateUser(DataIntegrityViolationException ex) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        String detail = (constraint != null ? constraint : NestedExceptionUtils.getMostSpecificCause(ex).getMessage())
+                .toLowerCase(Locale.ROOT);
+        if (detail.contains("uk_users_username"))
+            return new DuplicateUserException("Username is already taken!");
+        if (detail.contains("uk_users_email"))
+            return new DuplicateUserException("Email is already in use!");
+        if (detail.contains("unique"))
+            return new DuplicateUserException("Username or email is already in use!");
+        return ex;
+    }
 }
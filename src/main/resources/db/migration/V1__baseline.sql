@@ -0,0 +1,40 @@
+-- Schema as mapped by the entities; later changes go into new V<n>__*.sql files,
+-- Hibernate only validates (spring.jpa.hibernate.ddl-auto=validate)
+
+create sequence tasks_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+
+create table users (
+    id bigint not null,
+    token_version bigint not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    role varchar(16) check (role in ('ADMIN', 'USER')),
+    primary key (id),
+    -- the unique constraints are also the username and email lookup indexes
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table tasks (
+    created_at timestamp(6),
+    id bigint not null,
+    owner_id bigint,
+    updated_at timestamp(6),
+    version bigint not null,
+    description varchar(255),
+    title varchar(255),
+    -- enums are checked varchars, H2's ENUM type does not survive crash recovery reliably
+    status varchar(16) not null check (status in ('COMPLETED', 'IN_PROGRESS', 'PENDING')),
+    primary key (id),
+    constraint fk_tasks_owner foreign key (owner_id) references users
+);
+
+-- status leads, so it also serves plain status lookups
+create index idx_tasks_status_updated_at on tasks (status, updated_at);
+create index idx_tasks_owner_status_updated_at on tasks (owner_id, status, updated_at);
+create index idx_tasks_owner_id on tasks (owner_id, id);
+-- keyset pagination over created_at / updated_at, and plain range scans on either
+create index idx_tasks_created_at_id on tasks (created_at, id);
+create index idx_tasks_updated_at_id on tasks (updated_at, id);
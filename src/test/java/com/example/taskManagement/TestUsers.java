@@ -0,0 +1,68 @@
+package com.example.taskManagement;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.User;
+import com.example.taskManagement.repositories.UserRepository;
+import com.example.taskManagement.security.JwtTokenProvider;
+import com.example.taskManagement.security.UserPrincipal;
+
+/**
+ * Test fixture creating users and signing tokens for them, pulled in with @Import(TestUsers.class)
+ * Every user gets a unique name, so tests sharing the application context don't collide
+ */
+@TestComponent
+public class TestUsers {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private final UserRepository userRepository;
+    private final JwtTokenProvider tokenProvider;
+
+    public TestUsers(UserRepository userRepository, JwtTokenProvider tokenProvider) {
+        this.userRepository = userRepository;
+        this.tokenProvider = tokenProvider;
+    }
+
+    /**
+     * Saves a new user with the role; the password is not a valid hash, the user can't log in
+     */
+    public User create(Role role) {
+        String name = "test-user-" + counter.incrementAndGet() + "-" + System.nanoTime();
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("unused");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Token of a new user with the role
+     */
+    public String token(Role role) {
+        return token(create(role));
+    }
+
+    public String token(User user) {
+        UserPrincipal principal = new UserPrincipal(user.getId(), user.getTokenVersion(), user.getUsername(), "",
+                List.of(new SimpleGrantedAuthority(user.getRole().name())));
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(principal, null,
+                principal.getAuthorities()));
+    }
+
+    /**
+     * Sends the request with the token as its bearer credentials
+     */
+    public static MockHttpServletRequestBuilder as(String token, MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.taskManagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives the same load against the app with platform threads and with virtual threads
+ * and prints throughput and p99 latency of both. Excluded from the default build:
+ * mvn test -Pload-test (add -Pjava21 on a Java 21 JDK to include the virtual thread run)
+ * Tuned with -Dload.clients, -Dload.seconds and -Dload.tasks
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 200);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final int TASKS = Integer.getInteger("load.tasks", 5000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(run(false));
+        if (Runtime.version().feature() >= 21)
+            report.add(run(true));
+        else
+            report.add("virtual threads: skipped, needs Java 21");
+
+        System.out.printf("%n%d clients, %d s per mode, %d tasks%n", CLIENTS, SECONDS, TASKS);
+        report.forEach(System.out::println);
+    }
+
+    private String run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagementApiApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "spring.jpa.show-sql=false")
+                // an argument, so it wins over application.properties: the benchmark drives one user
+                .run("--app.rateLimitEnabled=false")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = login(baseUrl);
+            seed(baseUrl, token);
+
+            // warm up, then measure
+            drive(baseUrl, token, Math.max(1, SECONDS / 4));
+            long[] latencies = drive(baseUrl, token, SECONDS);
+
+            Arrays.sort(latencies);
+            double throughput = latencies.length / (double) SECONDS;
+            long p50 = latencies[(int) (latencies.length * 0.50)];
+            long p99 = latencies[(int) (latencies.length * 0.99)];
+            return String.format("%-8s threads: %8.0f req/s  p50 %6.2f ms  p99 %6.2f ms",
+                    mode, throughput, p50 / 1e6, p99 / 1e6);
+        }
+    }
+
+    // Each client alternates between a page of tasks and a single task
+    private long[] drive(String baseUrl, String token, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                results.add(clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        String path = count % 2 == 0
+                                ? "/api/tasks?limit=50"
+                                : "/api/tasks/" + ThreadLocalRandom.current().nextInt(1, TASKS + 1);
+                        long start = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(get(baseUrl + path, token),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        long elapsed = System.nanoTime() - start;
+                        assertEquals(200, response.statusCode(), path);
+                        if (count == samples.length)
+                            samples = Arrays.copyOf(samples, count * 2);
+                        samples[count++] = elapsed;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+            long[] all = new long[0];
+            for (Future<long[]> result : results) {
+                long[] samples = result.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + samples.length);
+                System.arraycopy(samples, 0, all, offset, samples.length);
+            }
+            assertTrue(all.length > 0);
+            return all;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private String login(String baseUrl) throws Exception {
+        post(baseUrl + "/api/auth/register", null,
+                "{\"username\":\"load\",\"email\":\"load@example.com\",\"password\":\"load\"}");
+        String body = post(baseUrl + "/api/auth/login", null, "{\"username\":\"load\",\"password\":\"load\"}");
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private void seed(String baseUrl, String token) throws Exception {
+        StringBuilder tasks = new StringBuilder("[");
+        for (int i = 1; i <= TASKS; i++) {
+            if (i > 1)
+                tasks.append(',');
+            tasks.append("{\"title\":\"Load task ").append(i).append("\",\"description\":\"Seeded for the load test\"}");
+        }
+        post(baseUrl + "/api/tasks/batch", token, tasks.append(']').toString());
+    }
+
+    private String post(String url, String token, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null)
+            request.header("Authorization", "Bearer " + token);
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), url + " " + response.body());
+        return response.body();
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.taskManagement.config;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.User;
+import com.example.taskManagement.repositories.TaskRepository;
+
+/**
+ * The replicas profile: read-only transactions reach the replica databases, which
+ * never get the primary's writes, except for a caller whose write is recent
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class,
+        properties = "app.replicaStickinessMs=" + ReadReplicaRoutingTest.STICKINESS_MS)
+@ActiveProfiles("replicas")
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class ReadReplicaRoutingTest {
+
+    static final long STICKINESS_MS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aWriterReadsFromThePrimaryUntilTheStickinessWindowEnds() throws Exception {
+        User user = users.create(Role.USER);
+        mockMvc.perform(as(users.token(user), post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Routed task\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(countTasksAs(user.getUsername())).isPositive();
+        // another caller already reads from a replica
+        assertThat(countTasksAs("someone-else")).isZero();
+
+        Thread.sleep(STICKINESS_MS + 200);
+        assertThat(countTasksAs(user.getUsername())).isZero();
+    }
+
+    @Test
+    void aUserWhoJustRegisteredCanLogIn() throws Exception {
+        String credentials = "{\"username\":\"replicated-" + System.nanoTime()
+                + "\",\"email\":\"replicated-" + System.nanoTime() + "@example.com\",\"password\":\"secret-password\"}";
+        mockMvc.perform(asyncDispatch(startAsync("/api/auth/register", credentials))).andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(startAsync("/api/auth/login", credentials))).andExpect(status().isOk());
+    }
+
+    private long countTasksAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null, "USER"));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> taskRepository.count());
+    }
+
+    private MvcResult startAsync(String path, String body) throws Exception {
+        return mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskManagement.controllers;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@AutoConfigureMockMvc
+// tests turn metrics export off, without it /actuator/prometheus would not exist at all
+@AutoConfigureObservability
+@Import(TestUsers.class)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Test
+    void cacheStatsAreForbiddenToUsers() throws Exception {
+        mockMvc.perform(as(users.token(Role.USER), get("/api/admin/caches")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void cacheStatsAreServedToAdmins() throws Exception {
+        mockMvc.perform(as(users.token(Role.ADMIN), get("/api/admin/caches")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userDetails").exists());
+    }
+
+    @Test
+    void onlyTheHealthCheckIsOpenWithoutAToken() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(users.token(Role.USER), get("/actuator/prometheus")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void metricsAreScrapedWithAnAdminToken() throws Exception {
+        mockMvc.perform(as(users.token(Role.ADMIN), get("/actuator/prometheus")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.taskManagement.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.models.User;
+import com.example.taskManagement.repositories.UserRepository;
+import com.example.taskManagement.security.PasswordHashingExecutor;
+
+/**
+ * POST /api/auth/register: one insert, 409 for a taken username or email however
+ * the requests interleave, and 503 once the hashing pool is saturated;
+ * POST /api/auth/login: 401 for bad credentials, outdated hashes upgraded
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class,
+        properties = {"app.passwordHashThreads=1", "app.passwordHashQueueSize=" + AuthControllerTest.QUEUE_SIZE})
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+    static final int QUEUE_SIZE = 8;
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void registersAUser() throws Exception {
+        String name = uniqueName();
+        mockMvc.perform(asyncDispatch(register(name, name + "@example.com")))
+                .andExpect(status().isOk());
+        assertThat(userRepository.findByUsername(name)).isPresent();
+    }
+
+    @Test
+    void aTakenUsernameOrEmailIsRejectedWith409() throws Exception {
+        String name = uniqueName();
+        mockMvc.perform(asyncDispatch(register(name, name + "@example.com")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(asyncDispatch(register(name, "other-" + name + "@example.com")))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Username is already taken!"));
+        mockMvc.perform(asyncDispatch(register("other-" + name, name + "@example.com")))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Email is already in use!"));
+        assertThat(userRepository.findByUsername("other-" + name)).isEmpty();
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneUsernameCreateOneUser() throws Exception {
+        String name = uniqueName();
+        int requests = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                String email = i + "-" + name + "@example.com";
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(asyncDispatch(register(name, email))).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses)
+                results.add(status.get(30, TimeUnit.SECONDS));
+
+            assertThat(results).containsOnly(200, 409);
+            assertThat(results).filteredOn(status -> status == 200).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(userRepository.findByUsername(name)).isPresent();
+    }
+
+    @Test
+    void aSaturatedHashingPoolAnswers503WithRetryAfter() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // one on the only thread, then the queue is filled
+            passwordHashingExecutor.submit(() -> {
+                running.countDown();
+                return await(release);
+            });
+            assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < QUEUE_SIZE; i++)
+                passwordHashingExecutor.submit(() -> await(release));
+
+            String name = uniqueName();
+            mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                            .content(registration(name, name + "@example.com")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            assertThat(userRepository.findByUsername(name)).isEmpty();
+        } finally {
+            release.countDown();
+            // drained before the next test registers
+            while (passwordHashingExecutor.queued() > 0)
+                Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void aLoginUpgradesAnOutdatedHash() throws Exception {
+        User user = new User();
+        user.setUsername(uniqueName());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret-password"));
+        userRepository.save(user);
+
+        mockMvc.perform(asyncDispatch(login(user.getUsername(), "secret-password")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+        String stored = userRepository.findByUsername(user.getUsername()).orElseThrow().getPassword();
+        assertThat(stored).isNotEqualTo(user.getPassword());
+        assertThat(passwordEncoder.matches("secret-password", stored)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(stored)).isFalse();
+    }
+
+    @Test
+    void aWrongPasswordOrAnUnknownUserIsRejectedWith401() throws Exception {
+        String name = uniqueName();
+        mockMvc.perform(asyncDispatch(register(name, name + "@example.com")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(asyncDispatch(login(name, "wrong-password")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(asyncDispatch(login("unknown-" + name, "secret-password")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(asyncDispatch(login(name, "secret-password")))
+                .andExpect(status().isOk());
+    }
+
+    private MvcResult login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private MvcResult register(String username, String email) throws Exception {
+        return mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content(registration(username, email)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String registration(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"secret-password\"}";
+    }
+
+    private static String uniqueName() {
+        return "registered-" + counter.incrementAndGet() + "-" + System.nanoTime();
+    }
+
+    private static Object await(CountDownLatch release) {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
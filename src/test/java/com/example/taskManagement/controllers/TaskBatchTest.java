@@ -0,0 +1,210 @@
+package com.example.taskManagement.controllers;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.TaskStatus;
+import com.example.taskManagement.services.TaskService;
+import com.example.taskManagement.services.TaskStatusCounters;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * POST, PATCH and DELETE /api/tasks/batch and POST /api/tasks/transitions/{target}:
+ * one result per item, in request order, each with its own status
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class TaskBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatusCounters statusCounters;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = users.token(Role.USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void createsValidItemsAndRejectsTheOthers() throws Exception {
+        JsonNode results = send(post("/api/tasks/batch"), "[{\"title\":\"First\"},{\"title\":\" \"},{\"title\":\"Third\"}]");
+        assertThat(statuses(results)).containsExactly(200, 400, 200);
+        assertThat(results.get(1).get("id").isNull()).isTrue();
+        mockMvc.perform(as(token, get("/api/tasks/" + results.get(2).get("id").asLong())))
+                .andExpect(jsonPath("$.title").value("Third"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        mockMvc.perform(as(token, post("/api/tasks/batch")).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updatesReportMissingUnknownAndIllegalItems() throws Exception {
+        List<Long> ids = create(3);
+        send(post("/api/tasks/transitions/COMPLETED"), "[" + ids.get(2) + "]");
+
+        JsonNode results = send(patch("/api/tasks/batch"), "[{\"id\":" + ids.get(0) + ",\"title\":\"Renamed\"},"
+                + "{\"title\":\"No id\"},"
+                + "{\"id\":" + Long.MAX_VALUE + ",\"title\":\"Unknown\"},"
+                + "{\"id\":" + ids.get(1) + ",\"status\":\"IN_PROGRESS\"},"
+                + "{\"id\":" + ids.get(2) + ",\"status\":\"PENDING\"}]");
+        assertThat(statuses(results)).containsExactly(200, 400, 404, 200, 409);
+
+        mockMvc.perform(as(token, get("/api/tasks/" + ids.get(0)))).andExpect(jsonPath("$.title").value("Renamed"));
+        mockMvc.perform(as(token, get("/api/tasks/" + ids.get(1)))).andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+        mockMvc.perform(as(token, get("/api/tasks/" + ids.get(2)))).andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void aConcurrentlyModifiedTaskOnlyFailsItsOwnItem() throws Exception {
+        List<Long> ids = create(2);
+        String body = "[{\"id\":" + ids.get(0) + ",\"title\":\"Mine\"},{\"id\":" + ids.get(1) + ",\"title\":\"Also mine\"}]";
+
+        // another transaction changes the first task and commits only once the batch
+        // read it and is waiting to write it, so the batch holds a stale version
+        Future<JsonNode> batch = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("update tasks set title = 'Theirs', version = version + 1 where id = ?", ids.get(0));
+            Future<JsonNode> pending = executor.submit(() -> send(patch("/api/tasks/batch"), body));
+            awaitBlockedSession();
+            return pending;
+        });
+        JsonNode results = batch.get(30, TimeUnit.SECONDS);
+
+        assertThat(statuses(results)).containsExactly(409, 200);
+        mockMvc.perform(as(token, get("/api/tasks/" + ids.get(0)))).andExpect(jsonPath("$.title").value("Theirs"));
+        mockMvc.perform(as(token, get("/api/tasks/" + ids.get(1)))).andExpect(jsonPath("$.title").value("Also mine"));
+        // a retry sees the current version and goes through
+        assertThat(statuses(send(patch("/api/tasks/batch"), body))).containsExactly(200, 200);
+    }
+
+    @Test
+    void transitionsAndDeletesReportEachItem() throws Exception {
+        List<Long> ids = create(2);
+        assertThat(statuses(send(post("/api/tasks/transitions/IN_PROGRESS"), "[" + ids.get(0) + ",null]")))
+                .containsExactly(200, 400);
+        // IN_PROGRESS -> IN_PROGRESS is not a transition
+        assertThat(statuses(send(post("/api/tasks/transitions/IN_PROGRESS"), "[" + ids.get(0) + "," + ids.get(1) + "]")))
+                .containsExactly(409, 200);
+
+        assertThat(statuses(send(delete("/api/tasks/batch"), "[" + ids.get(0) + "," + Long.MAX_VALUE + "," + ids.get(1) + "]")))
+                .containsExactly(200, 404, 200);
+        for (Long id : ids)
+            mockMvc.perform(as(token, get("/api/tasks/" + id))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void aDeleteWaitsForAConcurrentTransitionAndReportsItsStatus() throws Exception {
+        List<Long> ids = create(1);
+        // other contexts share the database, so only the change of the counts is compared
+        Map<TaskStatus, Long> before = statusCounters.snapshot().getByStatus();
+
+        // the transition commits only once the delete is waiting for the row, the delete
+        // then has to see IN_PROGRESS, not the PENDING it would have read without the lock
+        Future<JsonNode> deletion = transactionTemplate.execute(status -> {
+            taskService.transitionTask(ids.get(0), TaskStatus.IN_PROGRESS, null);
+            Future<JsonNode> pending = executor.submit(() -> send(delete("/api/tasks/batch"), "[" + ids.get(0) + "]"));
+            awaitBlockedSession();
+            return pending;
+        });
+        assertThat(statuses(deletion.get(30, TimeUnit.SECONDS))).containsExactly(200);
+
+        Map<TaskStatus, Long> after = statusCounters.snapshot().getByStatus();
+        assertThat(after.get(TaskStatus.PENDING) - before.get(TaskStatus.PENDING)).isEqualTo(-1);
+        assertThat(after.get(TaskStatus.IN_PROGRESS)).isEqualTo(before.get(TaskStatus.IN_PROGRESS));
+        assertThat(after.get(TaskStatus.COMPLETED)).isEqualTo(before.get(TaskStatus.COMPLETED));
+    }
+
+    private List<Long> create(int count) throws Exception {
+        List<String> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            tasks.add("{\"title\":\"Batch task " + i + "\"}");
+        List<Long> ids = new ArrayList<>();
+        send(post("/api/tasks/batch"), "[" + String.join(",", tasks) + "]").forEach(result -> ids.add(result.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, String json)
+            throws Exception {
+        String response = mockMvc.perform(as(token, request).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static List<Integer> statuses(JsonNode results) {
+        List<Integer> statuses = new ArrayList<>();
+        results.forEach(result -> statuses.add(result.get("status").asInt()));
+        return statuses;
+    }
+
+    // Waits until some session of the database waits for a row lock
+    private void awaitBlockedSession() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer blocked = jdbcTemplate.queryForObject(
+                    "select count(*) from information_schema.sessions where blocker_id is not null", Integer.class);
+            if (blocked != null && blocked > 0)
+                return;
+            Thread.onSpinWait();
+        }
+        throw new IllegalStateException("The batch never waited for the row lock");
+    }
+}
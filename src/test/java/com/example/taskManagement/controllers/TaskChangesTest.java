@@ -0,0 +1,170 @@
+package com.example.taskManagement.controllers;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.User;
+import com.example.taskManagement.services.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * GET /api/tasks/changes: paging in (updatedAt, id) order, resuming from the last cursor,
+ * and changes only listed once no transaction can commit an older one
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class, properties = "app.taskChangesLagMs=" + TaskChangesTest.LAG_MS)
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class TaskChangesTest {
+
+    static final long LAG_MS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        user = users.create(Role.USER);
+        token = users.token(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void pagesThroughEveryChangeAndResumesFromTheLastCursor() throws Exception {
+        List<Long> ids = create(5);
+        // too recent to be listed yet
+        assertThat(fetch(null).ids()).isEmpty();
+
+        awaitLag();
+        List<Long> listed = new ArrayList<>();
+        Page page = fetch(null);
+        while (!page.ids().isEmpty()) {
+            assertThat(page.ids().size()).isLessThanOrEqualTo(2);
+            listed.addAll(page.ids());
+            page = fetch(page.cursor());
+        }
+        // every task has the same updatedAt, the id breaks the tie
+        assertThat(listed).containsExactlyElementsOf(ids);
+        String cursor = page.cursor();
+        assertThat(cursor).isNotNull();
+
+        mockMvc.perform(as(token, patch("/api/tasks/" + ids.get(2))).header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Changed\"}"))
+                .andExpect(status().isNoContent());
+        Page unsettled = fetch(cursor);
+        assertThat(unsettled.ids()).isEmpty();
+        assertThat(unsettled.cursor()).isEqualTo(cursor);
+
+        awaitLag();
+        assertThat(fetch(cursor).ids()).containsExactly(ids.get(2));
+    }
+
+    @Test
+    void aChangeCommittedAfterALaterOneIsNotSkipped() throws Exception {
+        create(1);
+        awaitLag();
+        String cursor = fetch(null).cursor();
+        Long late = create(1).get(0);
+
+        // the patch takes its updatedAt first but commits after another task was created and a
+        // client synced: that sync must not hand out a cursor beyond the patched task
+        String cursorDuringWrite = transactionTemplate.execute(status -> {
+            TaskPatchRequest patch = new TaskPatchRequest();
+            patch.setTitle("Committed late");
+            taskService.patchTask(late, patch, null, user.getId());
+            try {
+                Long early = executor.submit(() -> create(1).get(0)).get(10, TimeUnit.SECONDS);
+                Page page = executor.submit(() -> fetch(cursor)).get(10, TimeUnit.SECONDS);
+                assertThat(page.ids()).doesNotContain(early);
+                return page.cursor();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        awaitLag();
+        assertThat(fetch(cursorDuringWrite).ids()).contains(late);
+    }
+
+    private List<Long> create(int count) throws Exception {
+        List<String> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            tasks.add("{\"title\":\"Changed task " + i + "\"}");
+        String created = mockMvc.perform(as(token, post("/api/tasks/batch"))
+                        .contentType(MediaType.APPLICATION_JSON).content("[" + String.join(",", tasks) + "]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(created).forEach(result -> ids.add(result.get("id").asLong()));
+        return ids;
+    }
+
+    private Page fetch(String cursor) throws Exception {
+        MockHttpServletRequestBuilder request = as(token, get("/api/tasks/changes")).param("limit", "2");
+        if (cursor != null)
+            request.param("cursor", cursor);
+        MockHttpServletResponse response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode task : objectMapper.readTree(response.getContentAsString()))
+            ids.add(task.get("id").asLong());
+        return new Page(ids, response.getHeader(TaskController.NEXT_CURSOR_HEADER));
+    }
+
+    private static void awaitLag() throws InterruptedException {
+        Thread.sleep(LAG_MS + 200);
+    }
+
+    private record Page(List<Long> ids, String cursor) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.taskManagement.controllers;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Response formats: JSON by default, Smile and CBOR on request, gzip from the server
+ * for large JSON bodies only; runs on a real port since Tomcat does the compression
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class TaskContentNegotiationTest {
+
+    private static final int TASKS = 20;
+    private static final String LISTING = "/api/tasks?limit=" + TASKS + "&fields=id,title,description";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = users.token(Role.USER);
+        // about 5 KB of JSON, above the 2 KB compression threshold
+        StringBuilder tasks = new StringBuilder("[");
+        for (int i = 0; i < TASKS; i++)
+            tasks.append(i == 0 ? "" : ",").append("{\"title\":\"Negotiated task ").append(i)
+                    .append("\",\"description\":\"").append("compressible ".repeat(15)).append("\"}");
+        mockMvc.perform(as(token, post("/api/tasks/batch"))
+                        .contentType(MediaType.APPLICATION_JSON).content(tasks.append("]").toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void theObjectMapperReadsPropertiesThroughBlackbird() {
+        assertThat(objectMapper.getRegisteredModuleIds()).contains(new BlackbirdModule().getTypeId());
+    }
+
+    @Test
+    void servesJsonSmileOrCborAsAccepted() throws Exception {
+        JsonNode json = objectMapper.readTree(fetch(null, MediaType.APPLICATION_JSON).getContentAsByteArray());
+        assertThat(json).hasSize(TASKS);
+
+        MockHttpServletResponse smile = fetch(new MediaType("application", "x-jackson-smile"),
+                new MediaType("application", "x-jackson-smile"));
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(smile.getContentAsByteArray())).isEqualTo(json);
+
+        MockHttpServletResponse cbor = fetch(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_CBOR);
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.getContentAsByteArray())).isEqualTo(json);
+    }
+
+    @Test
+    void largeJsonBodiesAreGzippedForClientsThatAcceptIt() throws Exception {
+        HttpResponse<InputStream> gzipped = send("application/json", "gzip");
+        assertThat(gzipped.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (InputStream body = new GZIPInputStream(gzipped.body())) {
+            assertThat(objectMapper.readTree(body)).hasSize(TASKS);
+        }
+
+        HttpResponse<InputStream> identity = send("application/json", null);
+        assertThat(identity.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+        try (InputStream body = identity.body()) {
+            assertThat(objectMapper.readTree(body)).hasSize(TASKS);
+        }
+
+        // the binary formats are left as they are
+        HttpResponse<InputStream> smile = send("application/x-jackson-smile", "gzip");
+        assertThat(smile.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+        smile.body().close();
+    }
+
+    private MockHttpServletResponse fetch(MediaType accept, MediaType expected) throws Exception {
+        MockHttpServletRequestBuilder request = as(token, get(LISTING));
+        if (accept != null)
+            request.accept(accept);
+        MockHttpServletResponse response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(MediaType.parseMediaType(response.getContentType()).isCompatibleWith(expected)).isTrue();
+        return response;
+    }
+
+    private HttpResponse<InputStream> send(String accept, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + LISTING))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null)
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+}
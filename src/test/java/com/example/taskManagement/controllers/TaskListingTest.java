@@ -0,0 +1,183 @@
+package com.example.taskManagement.controllers;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keyset pagination, cursor validation, conditional requests and the NDJSON export of GET /api/tasks
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class TaskListingTest {
+
+    private static final int TASKS = 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+    private List<Long> taskIds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = users.token(Role.USER);
+        // one batch chunk: every task gets the same createdAt, so the time ordered
+        // listings have to break the tie on the id
+        StringBuilder tasks = new StringBuilder("[");
+        for (int i = 0; i < TASKS; i++)
+            tasks.append(i == 0 ? "" : ",").append("{\"title\":\"Listed task ").append(i).append("\"}");
+        String created = mockMvc.perform(as(token, post("/api/tasks/batch"))
+                        .contentType(MediaType.APPLICATION_JSON).content(tasks.append("]").toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        taskIds = new ArrayList<>();
+        for (JsonNode result : objectMapper.readTree(created))
+            taskIds.add(result.get("id").asLong());
+    }
+
+    @Test
+    void followingTheCursorVisitsEveryTaskOnceInIdOrder() throws Exception {
+        assertThat(pageThrough("/api/tasks", null)).containsExactlyElementsOf(taskIds);
+    }
+
+    @Test
+    void tiesOnCreatedAtArePagedInIdOrder() throws Exception {
+        assertThat(pageThrough("/api/tasks", "2000-01-01T00:00:00")).containsExactlyElementsOf(taskIds);
+        List<Long> newestFirst = new ArrayList<>(taskIds);
+        Collections.reverse(newestFirst);
+        assertThat(pageThrough("/api/tasks/recent", null)).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void aListIsNotModifiedUntilATaskIsWrittenOrDeleted() throws Exception {
+        MockHttpServletResponse listed = mockMvc.perform(as(token, get("/api/tasks")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse();
+        String etag = listed.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/");
+        mockMvc.perform(as(token, get("/api/tasks")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(as(token, get("/api/tasks/status/PENDING")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // not the latest task: max(updatedAt) stays the same
+        mockMvc.perform(as(token, delete("/api/tasks/" + taskIds.get(0))))
+                .andExpect(status().is2xxSuccessful());
+        String afterDelete = mockMvc.perform(as(token, get("/api/tasks")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(afterDelete).isNotEqualTo(etag);
+        // a client holding only a date gets the whole list again
+        mockMvc.perform(as(token, get("/api/tasks")).header(HttpHeaders.IF_MODIFIED_SINCE,
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(as(token, post("/api/tasks/" + taskIds.get(1) + "/transitions/IN_PROGRESS")))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(token, get("/api/tasks")).header(HttpHeaders.IF_NONE_MATCH, afterDelete))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsTamperedCursors() throws Exception {
+        String notBase64 = "not a cursor!";
+        String notAnId = encode("12x");
+        String timePosition = encode("2026-01-01T00:00,5");
+        for (String cursor : List.of(notBase64, notAnId, timePosition))
+            mockMvc.perform(as(token, get("/api/tasks")).param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        // the time ordered listings only accept their own (timestamp, id) positions
+        mockMvc.perform(as(token, get("/api/tasks/recent")).param("cursor", encode("5")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamsEveryTaskAsOneJsonLine() throws Exception {
+        MvcResult started = mockMvc.perform(as(token, get("/api/tasks")).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        List<Long> streamed = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode task = objectMapper.readTree(line);
+            assertThat(task.get("title").asText()).startsWith("Listed task");
+            streamed.add(task.get("id").asLong());
+        }
+        assertThat(streamed).containsExactlyElementsOf(taskIds);
+    }
+
+    // Follows X-Next-Cursor two tasks at a time, returning the ids in the order they were listed
+    private List<Long> pageThrough(String path, String since) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = as(token, get(path)).param("limit", "2");
+            if (since != null)
+                request.param("since", since);
+            if (cursor != null)
+                request.param("cursor", cursor);
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            JsonNode page = objectMapper.readTree(response.getContentAsString());
+            assertThat(page.size()).isLessThanOrEqualTo(2);
+            page.forEach(task -> ids.add(task.get("id").asLong()));
+            cursor = response.getHeader(TaskController.NEXT_CURSOR_HEADER);
+            assertThat(ids.size()).isLessThanOrEqualTo(TASKS);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
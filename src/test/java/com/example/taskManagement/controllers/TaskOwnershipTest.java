@@ -0,0 +1,149 @@
+package com.example.taskManagement.controllers;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tasks addressed by id or in batches are only reachable by their owner and by admins
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class TaskOwnershipTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String ownerToken;
+    private String otherToken;
+    private String adminToken;
+    private long taskId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ownerToken = users.token(Role.USER);
+        otherToken = users.token(Role.USER);
+        adminToken = users.token(Role.ADMIN);
+        String created = mockMvc.perform(as(ownerToken, post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Private task\",\"description\":\"Only for its owner\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        taskId = objectMapper.readTree(created).get("id").asLong();
+    }
+
+    @Test
+    void otherUsersGetNotFoundForEverySingleTaskEndpoint() throws Exception {
+        mockMvc.perform(as(otherToken, get("/api/tasks/" + taskId))).andExpect(status().isNotFound());
+        mockMvc.perform(as(otherToken, put("/api/tasks/" + taskId))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Taken\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(as(otherToken, patch("/api/tasks/" + taskId)).header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Taken\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(as(otherToken, post("/api/tasks/" + taskId + "/transitions/IN_PROGRESS")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(as(otherToken, patch("/api/tasks/" + taskId + "/complete")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(as(otherToken, delete("/api/tasks/" + taskId))).andExpect(status().isNotFound());
+
+        mockMvc.perform(as(ownerToken, get("/api/tasks/" + taskId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Private task"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void otherUsersGetNotFoundForEveryBatchItem() throws Exception {
+        String ids = objectMapper.writeValueAsString(List.of(taskId));
+        mockMvc.perform(as(otherToken, post("/api/tasks/transitions/IN_PROGRESS"))
+                        .contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(jsonPath("$[0].status").value(404));
+        mockMvc.perform(as(otherToken, patch("/api/tasks/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + taskId + ",\"title\":\"Taken\"}]"))
+                .andExpect(jsonPath("$[0].status").value(404));
+        mockMvc.perform(as(otherToken, delete("/api/tasks/batch"))
+                        .contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(jsonPath("$[0].status").value(404));
+
+        mockMvc.perform(as(ownerToken, get("/api/tasks/" + taskId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Private task"));
+    }
+
+    @Test
+    void creatingWithAnExistingIdInsertsANewTask() throws Exception {
+        String created = mockMvc.perform(as(otherToken, post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + taskId + ",\"version\":3,\"title\":\"Taken\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Taken"))
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(created).get("id").asLong()).isNotEqualTo(taskId);
+
+        mockMvc.perform(as(ownerToken, get("/api/tasks/" + taskId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Private task"))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    void ownersCompleteTheirTaskAndGetItBackCompleted() throws Exception {
+        // loaded once so the task sits in the second-level cache
+        mockMvc.perform(as(ownerToken, get("/api/tasks/" + taskId))).andExpect(status().isOk());
+        mockMvc.perform(as(ownerToken, patch("/api/tasks/" + taskId + "/complete")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void adminsReachEveryTask() throws Exception {
+        mockMvc.perform(as(adminToken, post("/api/tasks/" + taskId + "/transitions/IN_PROGRESS")))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(adminToken, get("/api/tasks/" + taskId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+    }
+
+    @Test
+    void statsOnlyCountTheCallersTasks() throws Exception {
+        mockMvc.perform(as(ownerToken, get("/api/tasks/stats"))).andExpect(jsonPath("$.total").value(1));
+        mockMvc.perform(as(otherToken, get("/api/tasks/stats"))).andExpect(jsonPath("$.total").value(0));
+        mockMvc.perform(as(otherToken, get("/api/tasks/stats").param("all", "true")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(adminToken, get("/api/tasks/stats").param("all", "true")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.taskManagement.controllers;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * PATCH /api/tasks/{id}: If-Match carries the version the client read, the response ETag the new one
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class TaskPatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+    private long taskId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = users.token(Role.USER);
+        String created = mockMvc.perform(as(token, post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Patched task\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        taskId = objectMapper.readTree(created).get("id").asLong();
+    }
+
+    @Test
+    void aMatchingVersionIsAppliedAndBumpsTheETag() throws Exception {
+        patchTask("\"0\"", "{\"title\":\"Renamed\"}")
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(as(token, get("/api/tasks/" + taskId)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.title").value("Renamed"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void aStaleVersionIsRejectedWith412() throws Exception {
+        patchTask("\"0\"", "{\"title\":\"First\"}").andExpect(status().isNoContent());
+        patchTask("\"0\"", "{\"title\":\"Lost update\"}").andExpect(status().isPreconditionFailed());
+        mockMvc.perform(as(token, get("/api/tasks/" + taskId)))
+                .andExpect(jsonPath("$.title").value("First"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void aMissingOrGarbledVersionIsRejected() throws Exception {
+        patchTask(null, "{\"title\":\"Blind write\"}").andExpect(status().isPreconditionRequired());
+        patchTask("abc", "{\"title\":\"Garbled\"}").andExpect(status().isBadRequest());
+        patchTask("W/\"0\"", "{\"title\":\"Weak\"}").andExpect(status().isBadRequest());
+        mockMvc.perform(as(token, get("/api/tasks/" + taskId)))
+                .andExpect(jsonPath("$.title").value("Patched task"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        // * opts out of the check explicitly
+        patchTask("*", "{\"title\":\"Any version\"}")
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void anIllegalStatusChangeIsRejectedWith409() throws Exception {
+        patchTask("\"0\"", "{\"status\":\"COMPLETED\"}").andExpect(status().isNoContent());
+        // COMPLETED is final, even with the current version
+        patchTask("\"1\"", "{\"status\":\"PENDING\"}").andExpect(status().isConflict());
+        mockMvc.perform(as(token, get("/api/tasks/" + taskId)))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void theVersionIsCheckedAgainstTheTableNotTheCachedTask() throws Exception {
+        // cached at version 0, then changed behind the second-level cache's back
+        mockMvc.perform(as(token, get("/api/tasks/" + taskId))).andExpect(jsonPath("$.version").value(0));
+        jdbcTemplate.update("update tasks set title = 'Elsewhere', version = version + 1 where id = ?", taskId);
+
+        patchTask("\"0\"", "{\"title\":\"Lost update\"}").andExpect(status().isPreconditionFailed());
+        patchTask("\"0\"", "{\"status\":\"IN_PROGRESS\"}").andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void anIllegalStatusChangeNamesTheCurrentStatus() throws Exception {
+        patchTask("*", "{\"status\":\"COMPLETED\"}").andExpect(status().isNoContent());
+        patchTask("*", "{\"status\":\"IN_PROGRESS\"}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Task " + taskId + " cannot move to IN_PROGRESS from COMPLETED"));
+    }
+
+    @Test
+    void aPatchedTitleIsSearchableByItsOwnerOnly() throws Exception {
+        patchTask("*", "{\"title\":\"Quarterly zephyr report\"}").andExpect(status().isNoContent());
+        mockMvc.perform(as(token, get("/api/tasks/search")).param("keyword", "zephyr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(taskId));
+        mockMvc.perform(as(users.token(Role.USER), get("/api/tasks/search")).param("keyword", "zephyr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    private ResultActions patchTask(String ifMatch, String json) throws Exception {
+        var request = as(token, patch("/api/tasks/" + taskId)).contentType(MediaType.APPLICATION_JSON).content(json);
+        if (ifMatch != null)
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        return mockMvc.perform(request);
+    }
+}
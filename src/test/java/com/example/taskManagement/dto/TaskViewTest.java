@@ -0,0 +1,51 @@
+package com.example.taskManagement.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.taskManagement.models.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class TaskViewTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void parsesFieldListsAndDefaultsWhenAbsent() {
+        assertThat(TaskField.parse(null)).isEqualTo(TaskField.DEFAULT);
+        assertThat(TaskField.parse(" ")).isEqualTo(TaskField.DEFAULT);
+        assertThat(TaskField.parse("description, id")).containsExactly(TaskField.ID, TaskField.DESCRIPTION);
+        assertThatThrownBy(() -> TaskField.parse("id,password"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+    }
+
+    @Test
+    void serializesOnlyTheRequestedFields() throws Exception {
+        TaskView view = new TaskView(TaskField.parse("title,status,updatedAt"));
+        // selected for the cursor only
+        view.set(TaskField.ID, 7L);
+        view.set(TaskField.TITLE, "Ship it");
+        view.set(TaskField.STATUS, TaskStatus.PENDING);
+        view.set(TaskField.UPDATED_AT, LocalDateTime.of(2024, 5, 1, 12, 30));
+
+        assertThat(objectMapper.writeValueAsString(view))
+                .isEqualTo("{\"title\":\"Ship it\",\"status\":\"PENDING\",\"updatedAt\":\"2024-05-01T12:30:00\"}");
+    }
+
+    @Test
+    void keepsRequestedFieldsThatAreNull() throws Exception {
+        TaskView view = new TaskView(TaskField.parse("id,description"));
+        view.set(TaskField.ID, 7L);
+
+        assertThat(objectMapper.writeValueAsString(view)).isEqualTo("{\"id\":7,\"description\":null}");
+    }
+}
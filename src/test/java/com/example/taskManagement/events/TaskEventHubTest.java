@@ -0,0 +1,204 @@
+package com.example.taskManagement.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.taskManagement.models.TaskStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskEventHubTest {
+
+    private static final long OWNER = 1;
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    // a ring of 8 events and queues of 4, one sender thread, no heartbeats during a test
+    private final TaskEventHub hub = new TaskEventHub(8, 4, 1, 60_000, 60_000, new SimpleMeterRegistry());
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        hub.shutdown();
+    }
+
+    @Test
+    void resumesAfterTheLastEventId() {
+        RecordingEmitter live = subscribe(null);
+        // in steps the queue of the live subscriber can take
+        publish(3);
+        live.awaitIds(3);
+        publish(2);
+        List<Long> ids = live.awaitIds(5);
+
+        RecordingEmitter resumed = subscribe(ids.get(1));
+        assertThat(resumed.awaitIds(3)).containsExactlyElementsOf(ids.subList(2, 5));
+        publish(1);
+        assertThat(resumed.awaitIds(4)).containsExactlyElementsOf(live.awaitIds(6).subList(2, 6));
+        assertThat(resumed.resets()).isZero();
+    }
+
+    @Test
+    void sendsAResetForAnIdTheRingNoLongerHolds() {
+        RecordingEmitter live = subscribe(null);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            publish(4);
+            ids = live.awaitIds(4 * (i + 1));
+        }
+
+        RecordingEmitter expired = subscribe(ids.get(0));
+        // the ring holds the last 8 events
+        assertThat(expired.awaitIds(8)).containsExactlyElementsOf(ids.subList(4, 12));
+        assertThat(expired.resets()).isEqualTo(1);
+
+        // ids from before a restart are below every id of this run
+        RecordingEmitter restarted = subscribe(5L);
+        restarted.await(() -> restarted.resets() == 1);
+        assertThat(restarted.awaitIds(8)).containsExactlyElementsOf(ids.subList(4, 12));
+    }
+
+    @Test
+    void dropsASubscriberWhoseQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        hub.subscribe(slow, null, OWNER);
+
+        // the sender blocks on the first event, the next 4 fill the queue, one more overflows it
+        publish(1);
+        slow.await(() -> slow.sending);
+        publish(4);
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+        publish(1);
+        assertThat(hub.subscriberCount()).isZero();
+        assertThat(slow.completed).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    void eventsPublishedDuringTheReplayAreSentOnceInOrder() throws Exception {
+        TaskEventHub largeHub = new TaskEventHub(1024, 1024, 2, 60_000, 60_000, new SimpleMeterRegistry());
+        try {
+            RecordingEmitter live = new RecordingEmitter(null);
+            largeHub.subscribe(live, null, OWNER);
+            largeHub.onTaskChange(change(0));
+            long start = live.awaitIds(1).get(0);
+
+            for (int round = 0; round < 20; round++) {
+                long resumeAfter = start;
+                Future<?> publisher = executor.submit(() -> {
+                    for (int i = 0; i < 25; i++)
+                        largeHub.onTaskChange(change(i));
+                });
+                RecordingEmitter resumed = new RecordingEmitter(null);
+                largeHub.subscribe(resumed, resumeAfter, OWNER);
+                publisher.get(10, TimeUnit.SECONDS);
+
+                List<Long> expected = new ArrayList<>();
+                for (long id = resumeAfter + 1; id <= resumeAfter + 25; id++)
+                    expected.add(id);
+                assertThat(resumed.awaitIds(25)).containsExactlyElementsOf(expected);
+                assertThat(resumed.resets()).isZero();
+                start += 25;
+            }
+        } finally {
+            largeHub.shutdown();
+        }
+    }
+
+    private RecordingEmitter subscribe(Long lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        hub.subscribe(emitter, lastEventId, OWNER);
+        return emitter;
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++)
+            hub.onTaskChange(change(i));
+    }
+
+    private static TaskChangeEvent change(long taskId) {
+        return TaskChangeEvent.deleted(taskId, OWNER, TaskStatus.PENDING);
+    }
+
+    /**
+     * Emitter keeping the text of what was sent instead of writing to a response;
+     * with a latch, the first send waits until it is released
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final StringBuffer sent = new StringBuffer();
+        private final CountDownLatch release;
+        private volatile boolean sending;
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending = true;
+            try {
+                if (release != null && !release.await(10, TimeUnit.SECONDS))
+                    throw new IllegalStateException("Never released");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            for (var data : builder.build()) {
+                if (data.getData() instanceof String text)
+                    sent.append(text);
+                else
+                    sent.append("<event>");
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<Long> ids() {
+            List<Long> ids = new ArrayList<>();
+            Matcher matcher = EVENT_ID.matcher(sent);
+            while (matcher.find())
+                ids.add(Long.parseLong(matcher.group(1)));
+            return ids;
+        }
+
+        int resets() {
+            return sent.toString().split("event:reset", -1).length - 1;
+        }
+
+        List<Long> awaitIds(int count) {
+            await(() -> ids().size() >= count);
+            List<Long> ids = ids();
+            assertThat(ids).hasSize(count);
+            return ids;
+        }
+
+        void await(BooleanSupplier condition) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!condition.getAsBoolean()) {
+                if (System.nanoTime() > deadline)
+                    throw new IllegalStateException("Timed out, sent so far: " + sent);
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
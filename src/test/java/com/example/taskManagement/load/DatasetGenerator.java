@@ -0,0 +1,154 @@
+package com.example.taskManagement.load;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+import com.example.taskManagement.models.User;
+import com.example.taskManagement.repositories.TaskRepository;
+import com.example.taskManagement.repositories.UserRepository;
+
+/**
+ * Seeds a reproducible dataset straight through the repositories
+ * The same seed always produces the same users and tasks: owners are spread
+ * uniformly over the seeded users, statuses are skewed
+ * towards COMPLETED, creation dates towards the last few weeks, and title words
+ * follow a long-tail distribution so some searches match far more than others
+ */
+class DatasetGenerator {
+
+    static final String PASSWORD = "password";
+
+    static final String[] VOCABULARY = {
+            "report", "review", "deploy", "meeting", "invoice", "release", "backup", "customer", "budget", "design",
+            "migration", "database", "security", "audit", "onboarding", "training", "roadmap", "feedback", "contract",
+            "server", "network", "cleanup", "refactor", "bugfix", "ticket", "support", "analytics", "dashboard",
+            "payment", "shipping", "inventory", "marketing", "campaign", "newsletter", "hiring", "interview",
+            "quarterly", "monthly", "weekly", "urgent", "prototype", "benchmark", "latency", "capacity", "archive",
+            "license", "renewal", "vendor", "compliance", "forecast"
+    };
+
+    // PENDING, IN_PROGRESS, COMPLETED
+    private static final double[] STATUS_WEIGHTS = { 0.25, 0.15, 0.60 };
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Random random;
+    private final List<User> owners = new ArrayList<>();
+    // ids of the seeded tasks, by the index of their owner in owners
+    private final List<List<Long>> taskIdsByOwner = new ArrayList<>();
+
+    DatasetGenerator(UserRepository userRepository, TaskRepository taskRepository,
+                     PasswordEncoder passwordEncoder, long seed) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.random = new Random(seed);
+    }
+
+    static String username(int index) {
+        return "user" + index;
+    }
+
+    /**
+     * Creates users user0..user(count-1), all with the password {@link #PASSWORD}
+     */
+    void seedUsers(int count) {
+        // one hash shared by every user, the seeding should not be dominated by BCrypt
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername(username(i));
+            user.setEmail(username(i) + "@example.com");
+            user.setPassword(hash);
+            user.setRole(Role.USER);
+            chunk.add(user);
+            if (chunk.size() == CHUNK_SIZE) {
+                owners.addAll(userRepository.saveAll(chunk));
+                chunk.clear();
+            }
+        }
+        owners.addAll(userRepository.saveAll(chunk));
+        while (taskIdsByOwner.size() < owners.size())
+            taskIdsByOwner.add(new ArrayList<>());
+    }
+
+    /**
+     * Creates tasks owned by the users seeded before, unowned if there are none
+     */
+    void seedTasks(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> ownerIndexes = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < count; i++) {
+            int ownerIndex = owners.isEmpty() ? -1 : random.nextInt(owners.size());
+            chunk.add(randomTask(now, ownerIndex));
+            ownerIndexes.add(ownerIndex);
+            if (chunk.size() == CHUNK_SIZE)
+                save(chunk, ownerIndexes);
+        }
+        save(chunk, ownerIndexes);
+    }
+
+    /**
+     * Ids of the tasks seeded for username(userIndex), the ones that user may update
+     */
+    List<Long> taskIdsOf(int userIndex) {
+        return userIndex < taskIdsByOwner.size() ? taskIdsByOwner.get(userIndex) : List.of();
+    }
+
+    private void save(List<Task> chunk, List<Integer> ownerIndexes) {
+        // ids are assigned from the sequence on save
+        List<Task> saved = taskRepository.saveAll(chunk);
+        for (int i = 0; i < saved.size(); i++)
+            if (ownerIndexes.get(i) >= 0)
+                taskIdsByOwner.get(ownerIndexes.get(i)).add(saved.get(i).getId());
+        chunk.clear();
+        ownerIndexes.clear();
+    }
+
+    /**
+     * A word of the vocabulary, the first words being much more frequent
+     */
+    static String word(Random random) {
+        return VOCABULARY[(int) (VOCABULARY.length * Math.pow(random.nextDouble(), 3))];
+    }
+
+    private Task randomTask(LocalDateTime now, int ownerIndex) {
+        Task task = new Task();
+        task.setTitle(word(random) + " " + word(random) + " " + word(random));
+        task.setDescription("Follow up on the " + word(random) + " and the " + word(random) + " with the team");
+        task.setStatus(status());
+        if (ownerIndex >= 0)
+            task.setOwner(owners.get(ownerIndex));
+        // exponential ages, 30 days on average, capped at a year
+        long ageMinutes = (long) Math.min(365 * 24 * 60, -Math.log(1 - random.nextDouble()) * 30 * 24 * 60);
+        LocalDateTime createdAt = now.minusMinutes(ageMinutes);
+        task.setCreatedAt(createdAt);
+        // about 40% of the tasks were modified after their creation
+        task.setUpdatedAt(random.nextDouble() < 0.4
+                ? createdAt.plusMinutes((long) (random.nextDouble() * ageMinutes))
+                : createdAt);
+        return task;
+    }
+
+    private TaskStatus status() {
+        double r = random.nextDouble();
+        for (int i = 0; i < STATUS_WEIGHTS.length; i++) {
+            r -= STATUS_WEIGHTS[i];
+            if (r < 0)
+                return TaskStatus.values()[i];
+        }
+        return TaskStatus.COMPLETED;
+    }
+}
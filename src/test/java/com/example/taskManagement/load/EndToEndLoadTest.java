@@ -0,0 +1,77 @@
+package com.example.taskManagement.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.taskManagement.repositories.TaskRepository;
+import com.example.taskManagement.repositories.UserRepository;
+import com.example.taskManagement.search.TaskSearchIndex;
+import com.example.taskManagement.services.TaskStatusCounters;
+
+/**
+ * Macro-benchmark against the embedded server and the in-memory H2 database
+ * Seeds a reproducible dataset, drives login, listing, search, status and
+ * update requests from concurrent clients, and prints throughput and
+ * p50/p99/p999 per endpoint; full distributions land in target/load-results
+ * Excluded from the default build: mvn test -Pload-test -Dtest=EndToEndLoadTest
+ * Sized with -Dload.users, -Dload.tasks, -Dload.clients, -Dload.seconds and -Dload.seed
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // every simulated client logs in from localhost, which the rate limiter would throttle
+        properties = { "spring.jpa.show-sql=false", "app.rateLimitEnabled=false" })
+class EndToEndLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 200);
+    private static final int TASKS = Integer.getInteger("load.tasks", 50000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 50);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final long SEED = Long.getLong("load.seed", 42);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private TaskStatusCounters statusCounters;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        long start = System.currentTimeMillis();
+        DatasetGenerator generator = new DatasetGenerator(userRepository, taskRepository, passwordEncoder, SEED);
+        generator.seedUsers(USERS);
+        generator.seedTasks(TASKS);
+        // the rows were written without going through the service, resync the in-memory views
+        searchIndex.rebuild();
+        statusCounters.load();
+        System.out.printf("Seeded %d users and %d tasks in %d ms%n", USERS, TASKS, System.currentTimeMillis() - start);
+
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, USERS, generator, SEED);
+        LoadDriver.Result result = driver.run(CLIENTS, Duration.ofSeconds(Math.max(1, SECONDS / 5)),
+                Duration.ofSeconds(SECONDS));
+
+        System.out.printf("%n%d clients for %d s%n", CLIENTS, SECONDS);
+        result.report(System.out, new File("target/load-results"));
+        assertThat(result.requests()).isPositive();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.taskManagement.load;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.HdrHistogram.Histogram;
+
+import com.example.taskManagement.models.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Closed-loop load driver: every client logs in as its own user, then sends one
+ * weighted random request after the other and records its latency per endpoint
+ * Clients wait for each response before sending the next request, so latencies
+ * do not include the queueing a fixed arrival rate would cause
+ */
+class LoadDriver {
+
+    enum Endpoint {
+        LOGIN("POST /api/auth/login", 5),
+        LIST("GET /api/tasks", 30),
+        SEARCH("GET /api/tasks/search", 20),
+        BY_STATUS("GET /api/tasks/status/{status}", 15),
+        UPDATE("PUT /api/tasks/{id}", 30);
+
+        final String label;
+        final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private static final int TOTAL_WEIGHT = 100;
+
+    private final String baseUrl;
+    private final int users;
+    private final DatasetGenerator dataset;
+    private final long seed;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param dataset Generator that seeded the users and tasks, updates only target tasks of the client's user
+     */
+    LoadDriver(String baseUrl, int users, DatasetGenerator dataset, long seed) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.dataset = dataset;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the clients for the warm-up, then measures for the given duration
+     */
+    Result run(int clients, Duration warmup, Duration duration) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int clientIndex = c;
+                futures.add(pool.submit(() -> runClient(clientIndex, measureFrom, deadline)));
+            }
+            Result total = new Result(duration);
+            for (Future<Result> future : futures)
+                total.add(future.get());
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Result runClient(int clientIndex, long measureFrom, long deadline) throws Exception {
+        Random random = new Random(seed + clientIndex);
+        int userIndex = clientIndex % users;
+        String username = DatasetGenerator.username(userIndex);
+        // users can only update their own tasks, any other id would time the 404 path
+        List<Long> ownTaskIds = dataset.taskIdsOf(userIndex);
+        String token = login(username);
+        Result result = new Result(null);
+
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = pick(random);
+            if (endpoint == Endpoint.UPDATE && ownTaskIds.isEmpty())
+                endpoint = Endpoint.LIST;
+            HttpRequest request = switch (endpoint) {
+                case LOGIN -> loginRequest(username);
+                case LIST -> get("/api/tasks?limit=50", token);
+                case SEARCH -> get("/api/tasks/search?limit=20&keyword=" + DatasetGenerator.word(random), token);
+                case BY_STATUS -> get("/api/tasks/status/"
+                        + TaskStatus.values()[random.nextInt(TaskStatus.values().length)], token);
+                case UPDATE -> put("/api/tasks/" + ownTaskIds.get(random.nextInt(ownTaskIds.size())), token,
+                        "{\"title\":\"" + DatasetGenerator.word(random) + " " + DatasetGenerator.word(random) + "\",\"description\":\"Updated by the load test\"}");
+            };
+
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long end = System.nanoTime();
+
+            if (endpoint == Endpoint.LOGIN && response.statusCode() == 200)
+                token = objectMapper.readTree(response.body()).get("token").asText();
+            if (start >= measureFrom)
+                result.record(endpoint, response.statusCode(), end - start);
+        }
+        return result;
+    }
+
+    private static Endpoint pick(Random random) {
+        int r = random.nextInt(TOTAL_WEIGHT);
+        for (Endpoint endpoint : Endpoint.values()) {
+            r -= endpoint.weight;
+            if (r < 0)
+                return endpoint;
+        }
+        return Endpoint.LIST;
+    }
+
+    private String login(String username) throws Exception {
+        // the hashing pool may refuse logins while all clients start at once
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response = client.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200)
+                return objectMapper.readTree(response.body()).get("token").asText();
+            if (response.statusCode() != 503 || attempt == 100)
+                throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode());
+            Thread.sleep(50);
+        }
+    }
+
+    private HttpRequest loginRequest(String username) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + DatasetGenerator.PASSWORD + "\"}"))
+                .build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest put(String path, String token, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * Latency histograms (nanoseconds) and response codes per endpoint
+     */
+    static class Result {
+
+        private final Duration duration;
+        private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Map<Integer, Long>> statusCodes = new EnumMap<>(Endpoint.class);
+
+        Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        void record(Endpoint endpoint, int statusCode, long nanos) {
+            latencies.computeIfAbsent(endpoint, key -> new Histogram(3)).recordValue(nanos);
+            statusCodes.computeIfAbsent(endpoint, key -> new TreeMap<>()).merge(statusCode, 1L, Long::sum);
+        }
+
+        void add(Result other) {
+            other.latencies.forEach((endpoint, histogram) ->
+                    latencies.computeIfAbsent(endpoint, key -> new Histogram(3)).add(histogram));
+            other.statusCodes.forEach((endpoint, codes) ->
+                    codes.forEach((code, count) ->
+                            statusCodes.computeIfAbsent(endpoint, key -> new TreeMap<>()).merge(code, count, Long::sum)));
+        }
+
+        long requests() {
+            return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+
+        /**
+         * Prints one summary line per endpoint and writes the full percentile
+         * distribution of each endpoint (milliseconds) as an .hgrm file
+         */
+        void report(PrintStream out, File directory) throws FileNotFoundException {
+            directory.mkdirs();
+            double seconds = duration.toMillis() / 1000.0;
+            out.printf("%-32s %9s %9s %9s %9s %9s %9s  %s%n",
+                    "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "status codes");
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram histogram = latencies.get(endpoint);
+                if (histogram == null)
+                    continue;
+                out.printf("%-32s %9d %9.1f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                        endpoint.label, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                        histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                        histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMaxValue() / 1e6,
+                        statusCodes.get(endpoint));
+                try (PrintStream file = new PrintStream(new File(directory, endpoint.name().toLowerCase() + ".hgrm"))) {
+                    histogram.outputPercentileDistribution(file, 1e6);
+                }
+            }
+            out.printf("total: %d requests, %.1f req/s%n", requests(), requests() / seconds);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.taskManagement.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.repositories.TaskRepository;
+import com.example.taskManagement.repositories.UserRepository;
+
+/**
+ * Startup and crash recovery of the prod storage profile: seeds a file database,
+ * then times clean restarts and a restart after the database was closed without
+ * any cleanup, as after a kill -9 or a power loss. Startup time includes the
+ * migrations check, the schema validation and the search index rebuild
+ * Excluded from the default build: mvn test -Pload-test -Dtest=StorageRestartLoadTest
+ * Sized with -Dload.users, -Dload.tasks and -Dload.restarts; -Dload.dataDir keeps the
+ * database between runs (it is only seeded when empty), by default it goes to target
+ */
+@Tag("load")
+class StorageRestartLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 1000);
+    private static final int TASKS = Integer.getInteger("load.tasks", 500000);
+    private static final int RESTARTS = Integer.getInteger("load.restarts", 3);
+    private static final int CRASH_TASKS = 1000;
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final Path DATA_DIR = Path.of(System.getProperty("load.dataDir", "target/storage-load-test"));
+
+    @Test
+    void restartAndRecover() throws Exception {
+        long tasks;
+        try (ConfigurableApplicationContext context = start()) {
+            TaskRepository taskRepository = context.getBean(TaskRepository.class);
+            if (taskRepository.count() == 0) {
+                long start = System.currentTimeMillis();
+                DatasetGenerator generator = generator(context);
+                generator.seedUsers(USERS);
+                generator.seedTasks(TASKS);
+                System.out.printf("Seeded %d users and %d tasks in %d ms%n",
+                        USERS, TASKS, System.currentTimeMillis() - start);
+            }
+            tasks = taskRepository.count();
+        }
+        System.out.printf("%ndatabase: %d tasks, %.1f MB%n", tasks, fileSize() / 1e6);
+
+        for (int i = 1; i <= RESTARTS; i++) {
+            long start = System.nanoTime();
+            try (ConfigurableApplicationContext context = start()) {
+                long elapsed = System.nanoTime() - start;
+                assertThat(context.getBean(TaskRepository.class).count()).isEqualTo(tasks);
+                System.out.printf("clean restart %d: %8.0f ms%n", i, elapsed / 1e6);
+            }
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            generator(context).seedTasks(CRASH_TASKS);
+            // closes the files as they are, no flush of the write delay and no compaction
+            context.getBean(JdbcTemplate.class).execute("shutdown immediately");
+        }
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start()) {
+            long elapsed = System.nanoTime() - start;
+            long recovered = context.getBean(TaskRepository.class).count();
+            System.out.printf("crash recovery: %8.0f ms, %d of %d tasks written before the crash survived%n",
+                    elapsed / 1e6, recovered - tasks, CRASH_TASKS);
+            assertThat(recovered).isGreaterThanOrEqualTo(tasks);
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TaskManagementApiApplication.class)
+                .profiles("prod")
+                // arguments, not default properties, so they win over application-prod.properties
+                .run("--server.port=0", "--app.dataDir=" + DATA_DIR.toAbsolutePath());
+    }
+
+    private static DatasetGenerator generator(ConfigurableApplicationContext context) {
+        return new DatasetGenerator(context.getBean(UserRepository.class), context.getBean(TaskRepository.class),
+                context.getBean(PasswordEncoder.class), SEED);
+    }
+
+    private static long fileSize() throws Exception {
+        File file = DATA_DIR.resolve("taskdb.mv.db").toFile();
+        return file.exists() ? Files.size(file.toPath()) : 0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.taskManagement.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.taskManagement.events.TaskChangeEvent;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+
+class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.onTaskChange(TaskChangeEvent.created(task(1, "Learn Spring Boot", "Complete the tutorial")));
+        index.onTaskChange(TaskChangeEvent.created(task(2, "Write tests", "Cover the spring services")));
+        index.onTaskChange(TaskChangeEvent.created(task(3, "Buy milk", null)));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        assertThat(index.search("spring", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void matchesInsideWordsAndShortTerms() {
+        assertThat(index.search("utori", 10)).containsExactly(1L);
+        assertThat(index.search("mi", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        assertThat(index.search("spring tutorial", 10)).containsExactly(1L);
+        assertThat(index.search("spring milk", 10)).isEmpty();
+    }
+
+    @Test
+    void appliesLimit() {
+        assertThat(index.search("spring", 1)).containsExactly(1L);
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.onTaskChange(TaskChangeEvent.updated(task(3, "Buy spring flowers", null), TaskStatus.PENDING));
+        assertThat(index.search("milk", 10)).isEmpty();
+        assertThat(index.search("flowers", 10)).containsExactly(3L);
+
+        index.onTaskChange(TaskChangeEvent.deleted(3, null, TaskStatus.PENDING));
+        assertThat(index.search("flowers", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void restrictsResultsToOwner() {
+        Task owned = task(4, "Spring cleaning", null);
+        owned.setOwnerId(7L);
+        index.onTaskChange(TaskChangeEvent.created(owned));
+        assertThat(index.search("spring", 7L, 10)).containsExactly(4L);
+        assertThat(index.search("spring", null, 10)).containsExactly(4L, 1L, 2L);
+
+        // a status-only change: the task has no owner, the event does
+        Task statusOnly = new Task();
+        statusOnly.setId(4);
+        statusOnly.setStatus(TaskStatus.COMPLETED);
+        index.onTaskChange(TaskChangeEvent.patched(statusOnly, 7L, TaskStatus.PENDING));
+        assertThat(index.search("spring", 7L, 10)).containsExactly(4L);
+    }
+
+    @Test
+    void aPatchedTitleIsOnlyFoundByTheOwner() {
+        Task renamed = new Task();
+        renamed.setId(5);
+        renamed.setTitle("Spring harvest");
+        // also when the index did not hold the task yet
+        index.onTaskChange(TaskChangeEvent.patched(renamed, 7L, null));
+        assertThat(index.search("harvest", 7L, 10)).containsExactly(5L);
+        assertThat(index.search("harvest", 8L, 10)).isEmpty();
+
+        Task retitled = new Task();
+        retitled.setId(5);
+        retitled.setTitle("Autumn harvest");
+        index.onTaskChange(TaskChangeEvent.patched(retitled, 7L, null));
+        assertThat(index.search("autumn", 7L, 10)).containsExactly(5L);
+        assertThat(index.search("autumn", 8L, 10)).isEmpty();
+    }
+
+    private static Task task(long id, String title, String description) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setStatus(TaskStatus.PENDING);
+        return task;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.taskManagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    // 10 tokens per user, 3 per IP, refilled slowly enough not to matter during a test
+    private final RateLimitFilter filter = new RateLimitFilter(true, 10, 0.01, 3, 0.01, 5, 1000,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bucketRefusesBeyondCapacityAndRefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isEqualTo(SECOND);
+        assertThat(bucket.tryConsume(1, SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryConsume(1, SECOND)).isZero();
+        // idle time does not build up more than the capacity
+        assertThat(bucket.tryConsume(2, 100 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(1, 100 * SECOND)).isPositive();
+    }
+
+    @Test
+    void throttlesEachUserSeparatelyWithRetryAfter() throws Exception {
+        for (int i = 0; i < 10; i++)
+            assertThat(send("alice", "GET", "/api/tasks/" + i).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = send("alice", "GET", "/api/tasks/1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isPositive();
+
+        assertThat(send("bob", "GET", "/api/tasks/1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void listingsCostMoreThanSingleReads() throws Exception {
+        assertThat(send("alice", "GET", "/api/tasks").getStatus()).isEqualTo(200);
+        assertThat(send("alice", "GET", "/api/tasks/search").getStatus()).isEqualTo(200);
+        assertThat(send("alice", "GET", "/api/tasks/1").getStatus()).isEqualTo(429);
+
+        assertThat(filter.cost("GET", "/api/tasks/status/PENDING")).isEqualTo(5);
+        assertThat(filter.cost("POST", "/api/tasks/batch")).isEqualTo(5);
+        assertThat(filter.cost("POST", "/api/tasks")).isEqualTo(1);
+    }
+
+    @Test
+    void authEndpointsAreLimitedPerClientIp() throws Exception {
+        for (int i = 0; i < 3; i++)
+            assertThat(send(null, "POST", "/api/auth/login").getStatus()).isEqualTo(200);
+        assertThat(send(null, "POST", "/api/auth/login").getStatus()).isEqualTo(429);
+        // a token does not move auth requests out of the IP bucket
+        assertThat(send("alice", "POST", "/api/auth/register").getStatus()).isEqualTo(429);
+        // other paths than /api are not limited
+        assertThat(send(null, "GET", "/actuator/health").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse send(String username, String method, String path) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (username != null) {
+            User user = new User(username, "", List.of());
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.taskManagement.security;
+
+import static com.example.taskManagement.TestUsers.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.User;
+import com.example.taskManagement.repositories.UserRepository;
+import com.example.taskManagement.services.UserService;
+
+/**
+ * Tokens from before a logout or a role change are rejected, with the principal taken
+ * from the claims, by an instance that never saw the revocation, and with the user loaded
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class, properties = "app.jwtStatelessPrincipal=true")
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+class TokenRevocationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void aTokenIsRejectedAfterLogout() throws Exception {
+        User user = users.create(Role.USER);
+        String token = users.token(user);
+        mockMvc.perform(as(token, get("/api/tasks"))).andExpect(status().isOk());
+
+        mockMvc.perform(as(token, post("/api/users/me/logout"))).andExpect(status().isNoContent());
+        mockMvc.perform(as(token, get("/api/tasks"))).andExpect(status().isUnauthorized());
+        mockMvc.perform(as(users.token(reload(user)), get("/api/tasks"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void aDemotedAdminsTokenNoLongerCarriesTheAdminRole() throws Exception {
+        User admin = users.create(Role.ADMIN);
+        String token = users.token(admin);
+        mockMvc.perform(as(token, get("/api/admin/caches"))).andExpect(status().isOk());
+
+        demote(admin);
+        mockMvc.perform(as(token, get("/api/admin/caches"))).andExpect(status().isUnauthorized());
+        mockMvc.perform(as(users.token(reload(admin)), get("/api/admin/caches"))).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void aFreshInstanceReadsRevocationsFromTheDatabase() throws Exception {
+        User loggedOut = users.create(Role.USER);
+        mockMvc.perform(as(users.token(loggedOut), post("/api/users/me/logout"))).andExpect(status().isNoContent());
+        User demoted = users.create(Role.ADMIN);
+        demote(demoted);
+        User deleted = users.create(Role.USER);
+        userService.deteleUser(deleted.getId());
+
+        // as after a restart, or on a node that did not handle the requests above
+        TokenRevocationList fresh = new TokenRevocationList(60000, userRepository);
+        fresh.refresh();
+        assertThat(fresh.isRevoked(loggedOut.getId(), loggedOut.getTokenVersion())).isTrue();
+        assertThat(fresh.isRevoked(loggedOut.getId(), reload(loggedOut).getTokenVersion())).isFalse();
+        assertThat(fresh.isRevoked(demoted.getId(), demoted.getTokenVersion())).isTrue();
+        assertThat(fresh.isRevoked(deleted.getId(), deleted.getTokenVersion())).isTrue();
+    }
+
+    @Test
+    void revocationsOnAnotherNodeAreSeenAtTheNextReload() throws Exception {
+        User loggedOut = users.create(Role.USER);
+        User deleted = users.create(Role.USER);
+        TokenRevocationList otherNode = new TokenRevocationList(60000, userRepository);
+        otherNode.refresh();
+        assertThat(otherNode.isRevoked(loggedOut.getId(), loggedOut.getTokenVersion())).isFalse();
+        assertThat(otherNode.isRevoked(deleted.getId(), deleted.getTokenVersion())).isFalse();
+
+        mockMvc.perform(as(users.token(loggedOut), post("/api/users/me/logout"))).andExpect(status().isNoContent());
+        userService.deteleUser(deleted.getId());
+        otherNode.refresh();
+        assertThat(otherNode.isRevoked(loggedOut.getId(), loggedOut.getTokenVersion())).isTrue();
+        assertThat(otherNode.isRevoked(deleted.getId(), deleted.getTokenVersion())).isTrue();
+    }
+
+    private void demote(User admin) {
+        User demoted = reload(admin);
+        demoted.setRole(Role.USER);
+        userService.updateUser(demoted);
+    }
+
+    private User reload(User user) {
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    /**
+     * The same checks when every request loads the user
+     */
+    @Nested
+    @TestPropertySource(properties = "app.jwtStatelessPrincipal=false")
+    class WithTheUserLoaded {
+
+        // beans of this context: eviction from the outer one would not reach its user cache
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private TestUsers users;
+
+        @Autowired
+        private UserService userService;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Test
+        void aTokenIsRejectedAfterLogout() throws Exception {
+            User user = users.create(Role.USER);
+            String token = users.token(user);
+            mockMvc.perform(as(token, get("/api/tasks"))).andExpect(status().isOk());
+
+            mockMvc.perform(as(token, post("/api/users/me/logout"))).andExpect(status().isNoContent());
+            mockMvc.perform(as(token, get("/api/tasks"))).andExpect(status().isUnauthorized());
+            User reloaded = userRepository.findById(user.getId()).orElseThrow();
+            mockMvc.perform(as(users.token(reloaded), get("/api/tasks"))).andExpect(status().isOk());
+        }
+
+        @Test
+        void aDemotedAdminsTokenNoLongerCarriesTheAdminRole() throws Exception {
+            User admin = users.create(Role.ADMIN);
+            String token = users.token(admin);
+            mockMvc.perform(as(token, get("/api/admin/caches"))).andExpect(status().isOk());
+
+            User demoted = userRepository.findById(admin.getId()).orElseThrow();
+            demoted.setRole(Role.USER);
+            userService.updateUser(demoted);
+            mockMvc.perform(as(token, get("/api/admin/caches"))).andExpect(status().isUnauthorized());
+        }
+    }
+}
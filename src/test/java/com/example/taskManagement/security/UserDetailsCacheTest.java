@@ -0,0 +1,43 @@
+package com.example.taskManagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+class UserDetailsCacheTest {
+
+    private final UserDetailsCache cache = new UserDetailsCache(60000, 100);
+
+    @Test
+    void cachesLoadedUsers() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("alice", username -> load(username, loads));
+        cache.get("alice", username -> load(username, loads));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void doesNotCacheAUserEvictedWhileLoading() {
+        AtomicInteger loads = new AtomicInteger();
+        // the user is updated (and evicted) after the loader read the old row
+        UserDetails stale = cache.get("alice", username -> {
+            UserDetails loaded = load(username, loads);
+            cache.evict(username);
+            return loaded;
+        });
+        assertThat(stale).isNotNull();
+
+        cache.get("alice", username -> load(username, loads));
+        assertThat(loads).hasValue(2);
+    }
+
+    private static UserDetails load(String username, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new User(username, "", List.of());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.taskManagement.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void containsEveryAddedValue() {
+        CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++)
+            filter.add("user" + i);
+        for (int i = 0; i < 1000; i++)
+            assertThat(filter.mightContain("user" + i)).isTrue();
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++)
+            filter.add("user" + i);
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other" + i))
+                falsePositives++;
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void removeForgetsOnlyTheRemovedValue() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.add("alice");
+        filter.add("bob");
+        filter.remove("alice");
+        assertThat(filter.mightContain("alice")).isFalse();
+        assertThat(filter.mightContain("bob")).isTrue();
+    }
+}
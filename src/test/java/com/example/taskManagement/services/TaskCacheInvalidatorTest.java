@@ -0,0 +1,113 @@
+package com.example.taskManagement.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.dto.TaskField;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+
+/**
+ * Patches and transitions are JDBC updates: reads through the second-level and query caches
+ * must see them once they committed, and never see them if they rolled back
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@Import(TestUsers.class)
+class TaskCacheInvalidatorTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestUsers users;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private Long ownerId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = users.create(Role.USER).getId();
+        Task task = new Task();
+        task.setTitle("Cached");
+        taskId = taskService.createTask(task, ownerId).getId();
+        // cached before every write below
+        assertThat(title()).isEqualTo("Cached");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void aRowCachedByAReaderDuringThePatchIsDroppedOnCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.patchTask(taskId, titlePatch("Patched"), null, ownerId);
+            // another session still reads the committed row and caches it
+            try {
+                assertThat(executor.submit(this::title).get(10, TimeUnit.SECONDS)).isEqualTo("Cached");
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertThat(title()).isEqualTo("Patched");
+    }
+
+    @Test
+    void theWritingTransactionReadsItsOwnPatchAndARollbackLeavesNothingCached() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.patchTask(taskId, titlePatch("Rolled back"), null, ownerId);
+            assertThat(title()).isEqualTo("Rolled back");
+            status.setRollbackOnly();
+        });
+        assertThat(title()).isEqualTo("Cached");
+    }
+
+    @Test
+    void batchTransitionsAreSeenByEntityAndStatusQueryReads() {
+        assertThat(ids(TaskStatus.PENDING)).contains(taskId);
+        taskService.transitionTasks(List.of(taskId), TaskStatus.IN_PROGRESS, ownerId);
+
+        assertThat(taskService.getTaskById(taskId, ownerId).orElseThrow().getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(ids(TaskStatus.PENDING)).doesNotContain(taskId);
+        assertThat(ids(TaskStatus.IN_PROGRESS)).contains(taskId);
+    }
+
+    private String title() {
+        return taskService.getTaskById(taskId, ownerId).orElseThrow().getTitle();
+    }
+
+    private List<Long> ids(TaskStatus status) {
+        return taskService.getTasksByStatus(ownerId, status.name(), Set.of(TaskField.ID)).stream()
+                .map(task -> (Long) task.get(TaskField.ID))
+                .toList();
+    }
+
+    private static TaskPatchRequest titlePatch(String title) {
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setTitle(title);
+        return patch;
+    }
+}
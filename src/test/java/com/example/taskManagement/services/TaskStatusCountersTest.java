@@ -0,0 +1,175 @@
+package com.example.taskManagement.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.dto.BatchItemResult;
+import com.example.taskManagement.dto.TaskPatchRequest;
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+import com.example.taskManagement.repositories.TaskRepository;
+
+/**
+ * The in-memory status counts, overall and of the owner, must always equal a
+ * GROUP BY over the table, whichever write path moved the tasks
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@Import(TestUsers.class)
+class TaskStatusCountersTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatusCounters statusCounters;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestUsers users;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = users.create(Role.USER).getId();
+        // other contexts share the database, and their writes never reach these counters
+        statusCounters.load();
+        assertCountersMatchDatabase();
+    }
+
+    @Test
+    void rolledBackWritesAreNotCounted() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Task task = taskService.createTask(task("Rolled back"), ownerId);
+            Task started = task(null);
+            started.setStatus(TaskStatus.IN_PROGRESS);
+            taskService.updateTask(task.getId(), started, ownerId);
+            status.setRollbackOnly();
+        });
+        assertCountersMatchDatabase();
+
+        // the second item fails on the title column, so the status change of the first is rolled back with it
+        List<Long> ids = createTasks(1);
+        Task moved = task(null);
+        moved.setId(ids.get(0));
+        moved.setStatus(TaskStatus.COMPLETED);
+        Task tooLong = task("x".repeat(1000));
+        tooLong.setId(ids.get(0));
+        List<BatchItemResult> results = taskService.updateTasks(List.of(moved, tooLong), ownerId);
+        assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(500, 500);
+        assertCountersMatchDatabase();
+    }
+
+    @Test
+    void writesOutsideATransactionAreCountedRightAway() {
+        long pendingBefore = statusCounters.snapshot().getByStatus().get(TaskStatus.PENDING);
+        taskService.createTask(task("Counted"), ownerId);
+        assertThat(statusCounters.snapshot().getByStatus().get(TaskStatus.PENDING)).isEqualTo(pendingBefore + 1);
+        assertCountersMatchDatabase();
+    }
+
+    @Test
+    void aClientSuppliedIdIsCountedAsANewTask() {
+        Long existingId = createTasks(1).get(0);
+        Task copy = task("Same id");
+        copy.setId(existingId);
+        assertThat(taskService.createTask(copy, ownerId).getId()).isNotEqualTo(existingId);
+        assertCountersMatchDatabase();
+    }
+
+    @Test
+    void countersFollowBatchAndJdbcTransitions() {
+        List<Long> ids = createTasks(6);
+        assertCountersMatchDatabase();
+
+        taskService.transitionTasks(ids.subList(0, 4), TaskStatus.IN_PROGRESS, ownerId);
+        taskService.transitionTasks(ids.subList(0, 2), TaskStatus.COMPLETED, ownerId);
+        // COMPLETED is final: this item fails with 409 and must not move any count
+        assertThat(taskService.transitionTasks(List.of(ids.get(0)), TaskStatus.PENDING, ownerId))
+                .extracting(BatchItemResult::getStatus).containsExactly(409);
+        assertCountersMatchDatabase();
+
+        Task completed = task(null);
+        completed.setId(ids.get(2));
+        completed.setStatus(TaskStatus.COMPLETED);
+        taskService.updateTasks(List.of(completed), ownerId);
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setStatus(TaskStatus.IN_PROGRESS);
+        taskService.patchTask(ids.get(4), patch, null, ownerId);
+        taskService.transitionTask(ids.get(4), TaskStatus.PENDING, ownerId);
+        taskService.markTaskAsComplete(ids.get(5), ownerId);
+        assertCountersMatchDatabase();
+
+        taskService.deleteTasks(List.of(ids.get(3), ids.get(4)), ownerId);
+        taskService.deleteTask(ids.get(1), ownerId);
+        assertCountersMatchDatabase();
+    }
+
+    @Test
+    void writesByAnAdminAreCountedForTheOwner() {
+        List<Long> ids = createTasks(4);
+        taskService.transitionTasks(ids.subList(0, 2), TaskStatus.IN_PROGRESS, null);
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setTitle("Title only");
+        taskService.patchTask(ids.get(0), patch, null, null);
+        taskService.markTaskAsComplete(ids.get(1), null);
+        taskService.deleteTasks(List.of(ids.get(2)), null);
+        assertCountersMatchDatabase();
+        assertThat(taskService.getTaskStats(ownerId).getTotal()).isEqualTo(3);
+
+        Long otherOwner = users.create(Role.USER).getId();
+        taskService.createTask(task("Someone else's"), otherOwner);
+        assertThat(taskService.getTaskStats(ownerId).getTotal()).isEqualTo(3);
+        assertThat(taskService.getTaskStats(otherOwner).getTotal()).isEqualTo(1);
+    }
+
+    private List<Long> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            tasks.add(task("Counted task " + i));
+        return taskService.createTasks(tasks, ownerId).stream().map(BatchItemResult::getId).toList();
+    }
+
+    private void assertCountersMatchDatabase() {
+        Map<TaskStatus, Long> expected = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values())
+            expected.put(status, 0L);
+        for (Object[] row : taskRepository.countGroupByStatus())
+            expected.put((TaskStatus) row[0], (Long) row[1]);
+        assertThat(statusCounters.snapshot().getByStatus()).isEqualTo(expected);
+
+        Map<TaskStatus, Long> expectedOwned = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values())
+            expectedOwned.put(status, 0L);
+        for (Object[] row : taskRepository.countGroupByOwnerAndStatus()) {
+            if (ownerId.equals(row[0]))
+                expectedOwned.put((TaskStatus) row[1], (Long) row[2]);
+        }
+        assertThat(statusCounters.snapshot(ownerId).getByStatus()).isEqualTo(expectedOwned);
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+}
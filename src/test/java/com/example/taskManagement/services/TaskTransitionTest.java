@@ -0,0 +1,124 @@
+package com.example.taskManagement.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.taskManagement.TaskManagementApiApplication;
+import com.example.taskManagement.TestUsers;
+import com.example.taskManagement.dto.TaskTransition;
+import com.example.taskManagement.models.Role;
+import com.example.taskManagement.models.Task;
+import com.example.taskManagement.models.TaskStatus;
+
+/**
+ * Compare-and-set status changes: the UPDATE only matches a task still in an allowed predecessor status
+ */
+@SpringBootTest(classes = TaskManagementApiApplication.class)
+@Import(TestUsers.class)
+class TaskTransitionTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestUsers users;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = users.create(Role.USER).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void completedIsFinal() {
+        Long id = newTask();
+        assertThat(taskService.transitionTask(id, TaskStatus.COMPLETED, ownerId))
+                .isEqualTo(new TaskTransition(id, TaskStatus.PENDING, TaskStatus.COMPLETED));
+
+        assertThatThrownBy(() -> taskService.transitionTask(id, TaskStatus.PENDING, ownerId))
+                .isInstanceOf(IllegalTaskTransitionException.class);
+        assertThatThrownBy(() -> taskService.transitionTask(id, TaskStatus.IN_PROGRESS, ownerId))
+                .isInstanceOf(IllegalTaskTransitionException.class);
+        assertThat(status(id)).isEqualTo(TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void exactlyOneOfTwoConcurrentClaimsWins() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = newTask();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<TaskTransition>> claims = new ArrayList<>();
+            for (int i = 0; i < 2; i++)
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    return taskService.transitionTask(id, TaskStatus.IN_PROGRESS, ownerId);
+                }));
+            start.countDown();
+
+            int won = 0;
+            int refused = 0;
+            for (Future<TaskTransition> claim : claims) {
+                try {
+                    assertThat(claim.get(10, TimeUnit.SECONDS).getFrom()).isEqualTo(TaskStatus.PENDING);
+                    won++;
+                } catch (ExecutionException ex) {
+                    assertThat(ex.getCause()).isInstanceOf(IllegalTaskTransitionException.class);
+                    refused++;
+                }
+            }
+            assertThat(won).isEqualTo(1);
+            assertThat(refused).isEqualTo(1);
+            assertThat(status(id)).isEqualTo(TaskStatus.IN_PROGRESS);
+        }
+    }
+
+    @Test
+    void completingTwiceReturnsTheCompletedTask() {
+        Long id = newTask();
+        Task first = taskService.markTaskAsComplete(id, ownerId);
+        Task second = taskService.markTaskAsComplete(id, ownerId);
+
+        assertThat(first.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(second.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        // the second call wrote nothing
+        assertThat(second.getVersion()).isEqualTo(first.getVersion());
+        assertThatThrownBy(() -> taskService.markTaskAsComplete(Long.MAX_VALUE, ownerId))
+                .isInstanceOf(TaskNotFoundException.class);
+    }
+
+    private Long newTask() {
+        Task task = new Task();
+        task.setTitle("Transitioned task");
+        return taskService.createTask(task, ownerId).getId();
+    }
+
+    private TaskStatus status(Long id) {
+        return taskService.getTaskById(id, ownerId).orElseThrow().getStatus();
+    }
+}
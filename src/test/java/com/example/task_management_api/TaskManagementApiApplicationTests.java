@@ -3,7 +3,9 @@ package com.example.task_management_api;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+import com.example.taskManagement.TaskManagementApiApplication;
+
+@SpringBootTest(classes = TaskManagementApiApplication.class)
 class TaskManagementApiApplicationTests {
 
 	@Test